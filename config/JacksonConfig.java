@@ -0,0 +1,157 @@
+package com.petcare.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Jackson setup shared by every format. Blackbird replaces reflective getters and
+// setters with generated lambdas, and LocalDate/LocalDateTime are written by fixed
+// layout serializers instead of a DateTimeFormatter per value; the output is the
+// same ISO-8601 text the JavaTimeModule serializers produce, which remain the
+// fallback for timestamps and out-of-range years. The CBOR (application/cbor) and Smile
+// (application/x-jackson-smile) converters are built from the same Boot-configured
+// builder, so all three formats carry the same modules and settings. Since any
+// response may come in any of them, every response carries Vary: Accept and the
+// ETags name the encoding (see ETags.encoding).
+@Configuration
+public class JacksonConfig {
+
+    // Module beans are registered on the auto-configured ObjectMapper builder
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Module isoDateModule() {
+        SimpleModule module = new SimpleModule("IsoDateModule");
+        module.addSerializer(LocalDate.class, new IsoLocalDateSerializer());
+        module.addSerializer(LocalDateTime.class, new IsoLocalDateTimeSerializer());
+        return module;
+    }
+
+    // The Boot builder bean is prototype scoped, so each converter gets its own copy
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    // Set before the handler runs, so 304s written by checkNotModified carry it too
+    @Bean
+    public OncePerRequestFilter varyAcceptFilter() {
+        return new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain filterChain) throws ServletException, IOException {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                filterChain.doFilter(request, response);
+            }
+        };
+    }
+
+    // Same text as DateTimeFormatter.ISO_LOCAL_DATE: yyyy-MM-dd
+    static final class IsoLocalDateSerializer extends StdSerializer<LocalDate> {
+
+        private static final long serialVersionUID = 1L;
+
+        IsoLocalDateSerializer() {
+            super(LocalDate.class);
+        }
+
+        @Override
+        public void serialize(LocalDate value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) || !fourDigitYear(value.getYear())) {
+                LocalDateSerializer.INSTANCE.serialize(value, generator, provider);
+                return;
+            }
+            char[] text = new char[10];
+            writeDate(text, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            generator.writeString(text, 0, text.length);
+        }
+    }
+
+    // Same text as DateTimeFormatter.ISO_LOCAL_DATE_TIME: yyyy-MM-ddTHH:mm:ss with the
+    // fraction of a second only when non-zero and without trailing zeros
+    static final class IsoLocalDateTimeSerializer extends StdSerializer<LocalDateTime> {
+
+        private static final long serialVersionUID = 1L;
+
+        IsoLocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            if (provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS) || !fourDigitYear(value.getYear())) {
+                LocalDateTimeSerializer.INSTANCE.serialize(value, generator, provider);
+                return;
+            }
+            char[] text = new char[29];
+            writeDate(text, value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+            text[10] = 'T';
+            writeTwoDigits(text, 11, value.getHour());
+            text[13] = ':';
+            writeTwoDigits(text, 14, value.getMinute());
+            text[16] = ':';
+            writeTwoDigits(text, 17, value.getSecond());
+
+            int length = 19;
+            int nanos = value.getNano();
+            if (nanos != 0) {
+                text[length++] = '.';
+                for (int divisor = 100_000_000; nanos != 0; divisor /= 10) {
+                    text[length++] = (char) ('0' + nanos / divisor);
+                    nanos %= divisor;
+                }
+            }
+            generator.writeString(text, 0, length);
+        }
+    }
+
+    // Other years are signed or padded differently by ISO-8601, so they take the default path
+    private static boolean fourDigitYear(int year) {
+        return year >= 0 && year <= 9999;
+    }
+
+    private static void writeDate(char[] text, int year, int month, int day) {
+        writeTwoDigits(text, 0, year / 100);
+        writeTwoDigits(text, 2, year % 100);
+        text[4] = '-';
+        writeTwoDigits(text, 5, month);
+        text[7] = '-';
+        writeTwoDigits(text, 8, day);
+    }
+
+    private static void writeTwoDigits(char[] text, int offset, int value) {
+        text[offset] = (char) ('0' + value / 10);
+        text[offset + 1] = (char) ('0' + value % 10);
+    }
+}
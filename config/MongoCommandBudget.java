@@ -0,0 +1,121 @@
+package com.petcare.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.bson.BsonValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Counts the Mongo commands each HTTP request issues and flags requests over a
+// budget, which is how N+1 query patterns show up. Every request records
+// mongo.commands.per.request by route; requests over app.mongo.commandBudget.maxPerRequest
+// also increment mongo.requests.over.budget and log a per-collection breakdown.
+// count() applies the same counting to a single call, which MongoCommandBudgetTest
+// uses to fail the build when a code path's command count grows with its data.
+// getMore only continues an open cursor, so it is not counted as a query. Commands
+// issued from other threads (fanOutExecutor, reactive driver) are not attributed.
+@Component
+@ConditionalOnProperty(name = "app.mongo.commandBudget.enabled", havingValue = "true")
+public class MongoCommandBudget extends OncePerRequestFilter
+        implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MongoCommandBudget.class);
+
+    private final ThreadLocal<Map<String, Integer>> currentRequest = new ThreadLocal<>();
+    private final MeterRegistry meterRegistry;
+    private final int maxPerRequest;
+
+    public MongoCommandBudget(MeterRegistry meterRegistry,
+                              @Value("${app.mongo.commandBudget.maxPerRequest:10}") int maxPerRequest) {
+        this.meterRegistry = meterRegistry;
+        this.maxPerRequest = maxPerRequest;
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Map<String, Integer> commands = new LinkedHashMap<>();
+        currentRequest.set(commands);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            currentRequest.remove();
+            record(request, commands);
+        }
+    }
+
+    // Mongo commands issued on this thread while work runs, keyed like the over-budget log
+    public Map<String, Integer> count(Runnable work) {
+        Map<String, Integer> commands = new LinkedHashMap<>();
+        currentRequest.set(commands);
+        try {
+            work.run();
+        } finally {
+            currentRequest.remove();
+        }
+        return commands;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        Map<String, Integer> commands = currentRequest.get();
+        if (commands == null || "getMore".equals(event.getCommandName())) {
+            return;
+        }
+        commands.merge(describe(event), 1, Integer::sum);
+    }
+
+    private void record(HttpServletRequest request, Map<String, Integer> commands) {
+        int total = commands.values().stream().mapToInt(Integer::intValue).sum();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern == null ? "UNMAPPED" : pattern.toString();
+
+        DistributionSummary.builder("mongo.commands.per.request")
+                .description("Mongo commands issued while handling one HTTP request")
+                .tag("uri", route)
+                .register(meterRegistry)
+                .record(total);
+
+        if (total > maxPerRequest) {
+            Counter.builder("mongo.requests.over.budget")
+                    .description("HTTP requests that issued more Mongo commands than the budget")
+                    .tag("uri", route)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {} issued {} Mongo commands (budget {}): {}",
+                    request.getMethod(), route, total, maxPerRequest, commands);
+        }
+    }
+
+    // "find vaccinations": the command name plus the collection it targets
+    private static String describe(CommandStartedEvent event) {
+        BsonValue target = event.getCommand().get(event.getCommandName());
+        if (target != null && target.isString()) {
+            return event.getCommandName() + " " + target.asString().getValue();
+        }
+        return event.getCommandName();
+    }
+}
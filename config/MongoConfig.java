@@ -1,5 +1,124 @@
-package main.java.com.petcare.config;
+package com.petcare.config;
 
+import com.petcare.model.Appointment;
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Pet;
+import com.petcare.model.RevokedToken;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.model.Vet;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+
+import static org.springframework.data.domain.Sort.Direction.ASC;
+import static org.springframework.data.domain.Sort.Direction.DESC;
+import static com.petcare.service.PagedQueryService.CASE_INSENSITIVE;
+
+// Declares every index the repositories rely on. Auto index creation is off in
+// Spring Boot 3, so indexes are created here at startup; ensureIndex is a no-op
+// for indexes that already exist with the same definition. Indexes ending in _id
+// back the keyset pagination in PagedQueryService.
+@Configuration
 public class MongoConfig {
-    
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    public void createIndexes() {
+        createUserIndexes();
+        createPetIndexes();
+        createVetIndexes();
+        createAppointmentIndexes();
+        createVaccinationIndexes();
+        createMedicalHistoryIndexes();
+        createRevokedTokenIndexes();
+    }
+
+    // Index names match the ones @Indexed would generate, so existing indexes are reused
+    private void createUserIndexes() {
+        IndexOperations users = mongoTemplate.indexOps(User.class);
+        users.ensureIndex(new Index().on("username", ASC).unique().named("username"));
+        users.ensureIndex(new Index().on("email", ASC).unique().named("email"));
+        // Phone number is optional, so only documents that have one take part in the index
+        users.ensureIndex(new Index().on("phoneNumber", ASC).unique().sparse().named("phoneNumber"));
+        users.ensureIndex(new Index().on("role", ASC).on("active", ASC));
+        users.ensureIndex(new Index().on("active", ASC));
+        users.ensureIndex(new Index().on("firstName", ASC).on("lastName", ASC));
+        // Same keys as the index above, so the collated one needs its own name
+        users.ensureIndex(new Index().on("firstName", ASC).on("lastName", ASC).collation(CASE_INSENSITIVE)
+                .named("firstName_1_lastName_1_ci"));
+    }
+
+    private void createPetIndexes() {
+        IndexOperations pets = mongoTemplate.indexOps(Pet.class);
+        pets.ensureIndex(new Index().on("ownerId", ASC).on("_id", ASC));
+        // Covers the count/max(updatedAt) behind the owner pet list ETags
+        pets.ensureIndex(new Index().on("ownerId", ASC).on("updatedAt", ASC));
+        pets.ensureIndex(new Index().on("species", ASC).on("breed", ASC));
+        pets.ensureIndex(new Index().on("breed", ASC));
+        pets.ensureIndex(new Index().on("age", ASC).on("_id", ASC));
+        pets.ensureIndex(new Index().on("species", ASC).on("_id", ASC).collation(CASE_INSENSITIVE));
+        pets.ensureIndex(new Index().on("breed", ASC).on("_id", ASC).collation(CASE_INSENSITIVE));
+    }
+
+    private void createVetIndexes() {
+        IndexOperations vets = mongoTemplate.indexOps(Vet.class);
+        vets.ensureIndex(new Index().on("userId", ASC));
+        vets.ensureIndex(new Index().on("licenseNumber", ASC));
+        vets.ensureIndex(new Index().on("specialization", ASC));
+        vets.ensureIndex(new Index().on("clinicName", ASC));
+        vets.ensureIndex(new Index().on("yearsOfExperience", ASC));
+        vets.ensureIndex(new Index().on("specialization", ASC).on("_id", ASC).collation(CASE_INSENSITIVE));
+        vets.ensureIndex(new Index().on("clinicName", ASC).on("_id", ASC).collation(CASE_INSENSITIVE));
+    }
+
+    private void createAppointmentIndexes() {
+        IndexOperations appointments = mongoTemplate.indexOps(Appointment.class);
+        appointments.ensureIndex(new Index().on("vetId", ASC).on("appointmentDateTime", ASC).on("_id", ASC));
+        appointments.ensureIndex(new Index().on("petId", ASC).on("appointmentDateTime", ASC).on("_id", ASC));
+        appointments.ensureIndex(new Index().on("ownerId", ASC).on("_id", ASC));
+        appointments.ensureIndex(new Index().on("appointmentDateTime", ASC).on("_id", ASC));
+        appointments.ensureIndex(new Index().on("status", ASC));
+    }
+
+    private void createVaccinationIndexes() {
+        IndexOperations vaccinations = mongoTemplate.indexOps(Vaccination.class);
+        vaccinations.ensureIndex(new Index().on("petId", ASC).on("scheduledDate", DESC).on("_id", DESC));
+        vaccinations.ensureIndex(new Index().on("petId", ASC).on("_id", ASC));
+        // Owner reminders: one $in over the owner's pets, merged in nextDueDate order
+        vaccinations.ensureIndex(new Index().on("petId", ASC).on("nextDueDate", ASC));
+        vaccinations.ensureIndex(new Index().on("vetId", ASC).on("_id", ASC));
+        vaccinations.ensureIndex(new Index().on("nextDueDate", ASC).on("status", ASC));
+        vaccinations.ensureIndex(new Index().on("nextDueDate", ASC).on("_id", ASC));
+        vaccinations.ensureIndex(new Index().on("status", ASC).on("nextDueDate", ASC).on("_id", ASC));
+        vaccinations.ensureIndex(new Index().on("administeredDate", ASC).on("_id", ASC));
+        vaccinations.ensureIndex(new Index().on("scheduledDate", ASC));
+        vaccinations.ensureIndex(new Index().on("vaccineType", ASC));
+        vaccinations.ensureIndex(new Index().on("vaccineName", ASC));
+        vaccinations.ensureIndex(new Index().on("vaccineType", ASC).on("_id", ASC).collation(CASE_INSENSITIVE));
+        vaccinations.ensureIndex(new Index().on("vaccineName", ASC).on("_id", ASC).collation(CASE_INSENSITIVE));
+        vaccinations.ensureIndex(new Index().on("petId", ASC).on("vaccineName", ASC).collation(CASE_INSENSITIVE));
+    }
+
+    private void createMedicalHistoryIndexes() {
+        IndexOperations medicalHistories = mongoTemplate.indexOps(MedicalHistory.class);
+        // Serves the recent-history top-N without an in-memory sort
+        medicalHistories.ensureIndex(new Index().on("petId", ASC).on("visitDate", DESC).on("_id", DESC));
+        medicalHistories.ensureIndex(new Index().on("vetId", ASC).on("_id", ASC));
+        medicalHistories.ensureIndex(new Index().on("visitDate", ASC).on("_id", ASC));
+    }
+
+    private void createRevokedTokenIndexes() {
+        IndexOperations revokedTokens = mongoTemplate.indexOps(RevokedToken.class);
+        // TTL index: Mongo drops a revocation once every token it covers has expired
+        revokedTokens.ensureIndex(new Index().on("expiresAt", ASC).expire(Duration.ZERO).named("expiresAt"));
+        revokedTokens.ensureIndex(new Index().on("revokedAt", ASC).named("revokedAt"));
+    }
 }
@@ -0,0 +1,279 @@
+package com.petcare.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+// Calls every query method declared on the repository interfaces with sample
+// arguments, captures the commands Spring Data sends through a driver command
+// listener, and explains each of them. A method fails the check when a command is
+// planned as a collection scan or as an index scan over every key of the index
+// (what a case-insensitive regex does), or when it sent no command at all.
+// QueryPlanVerifierTest runs it against a Mongo container with MongoConfig's
+// indexes; it can also run at startup with app.mongo.verifyQueryPlans=true.
+@Component
+@ConditionalOnProperty(name = "app.mongo.verifyQueryPlans", havingValue = "true")
+public class QueryPlanVerifier implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private static final String ID = "000000000000000000000000";
+
+    // Unanchored regex searches cannot use an index; they are reported but do not fail the check
+    private static final Set<String> SCAN_EXPECTED = Set.of(
+            "UserRepository.searchUsersByName",
+            "PetRepository.findPetsByCriteria",
+            "VetRepository.searchVets",
+            "MedicalHistoryRepository.findByDiagnosisContaining",
+            "MedicalHistoryRepository.findByVisitReasonContaining");
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+
+    // Index bounds of a leading key that cover the whole index
+    private static final Set<String> FULL_RANGE = Set.of("[MinKey, MaxKey]", "[\"\", {})");
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Queue<BsonDocument> captured = new ConcurrentLinkedQueue<>();
+    private final Set<String> verifiedMethods = new TreeSet<>();
+    private volatile boolean capturing;
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (capturing && READ_COMMANDS.contains(event.getCommandName())) {
+            captured.add(event.getCommand().clone());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void verify() {
+        List<String> failures = new ArrayList<>();
+        verifiedMethods.clear();
+
+        for (Map.Entry<Class<?>, Object> repository : repositories().entrySet()) {
+            for (Method method : queryMethods(repository.getKey())) {
+                String name = repository.getKey().getSimpleName() + "." + method.getName();
+                List<BsonDocument> commands;
+                try {
+                    commands = invoke(repository.getValue(), method);
+                } catch (Exception e) {
+                    failures.add(name + " could not be called: " + e.getMessage());
+                    continue;
+                }
+                if (commands.isEmpty()) {
+                    failures.add(name + " sent no query");
+                    continue;
+                }
+
+                for (BsonDocument command : commands) {
+                    String scan = scan(winningPlan(explain(command)));
+                    if (scan != null && SCAN_EXPECTED.contains(name)) {
+                        logger.warn("{} uses a {} (unanchored regex search)", name, scan);
+                    } else if (scan != null) {
+                        failures.add(name + " is planned as a " + scan);
+                    }
+                }
+                verifiedMethods.add(name);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Repository queries without a usable index: " + failures);
+        }
+        logger.info("Verified query plans of {} repository queries", verifiedMethods.size());
+    }
+
+    // Repository methods, as "Repository.method", whose queries the last run explained
+    public synchronized Set<String> verifiedMethods() {
+        return new TreeSet<>(verifiedMethods);
+    }
+
+    // The application's repository interfaces, each with its bean
+    private Map<Class<?>, Object> repositories() {
+        Map<Class<?>, Object> repositories = new TreeMap<>(Comparator.comparing(Class::getName));
+        for (Object bean : applicationContext.getBeansOfType(Repository.class).values()) {
+            for (Class<?> type : AopProxyUtils.proxiedUserInterfaces(bean)) {
+                if (Repository.class.isAssignableFrom(type) && type.getPackageName().startsWith("com.petcare.repository")) {
+                    repositories.put(type, bean);
+                }
+            }
+        }
+        return repositories;
+    }
+
+    private static List<Method> queryMethods(Class<?> repository) {
+        List<Method> methods = new ArrayList<>();
+        for (Method method : repository.getDeclaredMethods()) {
+            if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    // Runs the method to completion and returns the read commands it sent
+    private List<BsonDocument> invoke(Object repository, Method method) throws Exception {
+        captured.clear();
+        capturing = true;
+        try {
+            Object result = method.invoke(repository, sampleArguments(method));
+            if (result instanceof Stream<?> stream) {
+                stream.close();
+            } else if (result instanceof Publisher<?> publisher) {
+                Flux.from(publisher).collectList().block();
+            }
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            capturing = false;
+        }
+        return new ArrayList<>(captured);
+    }
+
+    private static Object[] sampleArguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            arguments[i] = sampleArgument(types[i]);
+        }
+        return arguments;
+    }
+
+    private static Object sampleArgument(Class<?> type) {
+        if (type == String.class) {
+            return ID;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == Instant.class) {
+            return Instant.now();
+        }
+        if (Collection.class.isAssignableFrom(type)) {
+            return List.of(ID);
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        throw new IllegalArgumentException("no sample argument for " + type.getName());
+    }
+
+    private Document explain(BsonDocument command) {
+        BsonDocument query = new BsonDocument();
+        // Drop the session and routing fields the driver adds; explain sets its own
+        command.forEach((key, value) -> {
+            if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                query.append(key, value);
+            }
+        });
+        return mongoTemplate.getDb().runCommand(new BsonDocument("explain", query)
+                .append("verbosity", new BsonString("queryPlanner")));
+    }
+
+    private static Document winningPlan(Document explainResult) {
+        Document queryPlanner = explainResult.get("queryPlanner", Document.class);
+        if (queryPlanner == null) {
+            // Aggregations report the plan of their $cursor stage
+            List<?> stages = explainResult.getList("stages", Object.class, List.of());
+            return stages.isEmpty() ? explainResult : new Document("stages", stages);
+        }
+        return queryPlanner.get("winningPlan", Document.class);
+    }
+
+    // Plans nest stages under inputStage/inputStages (and queryPlan for the SBE engine).
+    // Returns the kind of scan found, or null when every scan is bounded.
+    private static String scan(Object node) {
+        if (node instanceof Document document) {
+            if ("COLLSCAN".equals(document.get("stage"))) {
+                return "collection scan";
+            }
+            if ("IXSCAN".equals(document.get("stage")) && scansWholeIndex(document)) {
+                return "full scan of index " + document.get("indexName");
+            }
+            for (Object value : document.values()) {
+                String scan = scan(value);
+                if (scan != null) {
+                    return scan;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                String scan = scan(value);
+                if (scan != null) {
+                    return scan;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean scansWholeIndex(Document indexScan) {
+        Document keyPattern = indexScan.get("keyPattern", Document.class);
+        Document indexBounds = indexScan.get("indexBounds", Document.class);
+        if (keyPattern == null || keyPattern.isEmpty() || indexBounds == null) {
+            return false;
+        }
+        List<?> leadingBounds = indexBounds.getList(keyPattern.keySet().iterator().next(), Object.class, List.of());
+        return leadingBounds.stream().anyMatch(bound -> FULL_RANGE.contains(String.valueOf(bound)));
+    }
+}
@@ -0,0 +1,21 @@
+package com.petcare.config;
+
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+// Reactive Mongo client, template and repositories for ReactiveReadController.
+// PetCareApplication excludes their auto-configuration, so they are only started
+// under the "reactive" profile and other deployments run the blocking driver alone.
+@Configuration
+@Profile("reactive")
+@ImportAutoConfiguration({
+        MongoReactiveAutoConfiguration.class,
+        MongoReactiveDataAutoConfiguration.class,
+        MongoReactiveRepositoriesAutoConfiguration.class
+})
+public class ReactiveMongoConfig {
+}
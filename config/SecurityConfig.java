@@ -1,7 +1,11 @@
 package com.petcare.config;
 
+import com.petcare.security.AdaptiveBCryptPasswordEncoder;
 import com.petcare.security.JwtAuthenticationFilter;
-import com.petcare.service.AuthService;
+import com.petcare.security.UserPrincipalService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,7 +14,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -26,15 +29,34 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                           @Value("${app.security.bcrypt.strength:0}") int strength,
+                                           @Value("${app.security.bcrypt.minStrength:10}") int minStrength,
+                                           @Value("${app.security.bcrypt.maxStrength:14}") int maxStrength,
+                                           @Value("${app.security.bcrypt.targetHashMs:250}") long targetHashMs) {
+        // A configured cost is shared by every instance; 0 calibrates on this machine
+        AdaptiveBCryptPasswordEncoder encoder = strength > 0
+                ? AdaptiveBCryptPasswordEncoder.withStrength(strength)
+                : AdaptiveBCryptPasswordEncoder.calibrate(minStrength, maxStrength, targetHashMs);
+
+        Gauge.builder("auth.bcrypt.strength", encoder, AdaptiveBCryptPasswordEncoder::getStrength)
+                .description("BCrypt cost, configured or chosen by startup calibration")
+                .register(meterRegistry);
+        Gauge.builder("auth.bcrypt.hash.time", encoder, AdaptiveBCryptPasswordEncoder::getHashTimeMillis)
+                .description("Measured time of one hash at the chosen cost")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return encoder;
     }
 
     @Bean
-    public DaoAuthenticationProvider authenticationProvider(AuthService authService, PasswordEncoder passwordEncoder) {
+    public DaoAuthenticationProvider authenticationProvider(UserPrincipalService userPrincipalService,
+                                                            PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
-        authProvider.setUserDetailsService(authService);
+        authProvider.setUserDetailsService(userPrincipalService);
         authProvider.setPasswordEncoder(passwordEncoder);
+        // Re-hash hashes below the chosen cost after a successful login
+        authProvider.setUserDetailsPasswordService(userPrincipalService);
         return authProvider;
     }
 
@@ -51,10 +73,12 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/pets/**").hasAnyRole("OWNER", "VET", "ADMIN")
+                .requestMatchers("/api/vets/directory/**").hasRole("ADMIN")
                 .requestMatchers("/api/vets/**").hasAnyRole("VET", "ADMIN")
                 .requestMatchers("/api/vaccinations/**").hasAnyRole("OWNER", "VET", "ADMIN")
                 .requestMatchers("/api/appointments/**").hasAnyRole("OWNER", "VET", "ADMIN")
                 .requestMatchers("/api/medical-history/**").hasAnyRole("OWNER", "VET", "ADMIN")
+                .requestMatchers("/api/import/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -0,0 +1,47 @@
+package com.petcare.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Executor for parallel Mongo reads inside a request. With
+// spring.threads.virtual.enabled=true (which also moves Tomcat's request threads
+// onto virtual threads) every task gets its own virtual thread, so a slow Mongo
+// call parks a cheap virtual thread instead of occupying a pool slot.
+// Otherwise a bounded platform pool is used, and a full queue runs the task on
+// the calling thread.
+@Configuration
+public class ThreadingConfig {
+
+    @Bean(name = "fanOutExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualFanOutExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("fan-out-", 0).factory());
+    }
+
+    @Bean(name = "fanOutExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService platformFanOutExecutor(@Value("${app.threads.fanOutPoolSize:32}") int poolSize,
+                                                  @Value("${app.threads.fanOutQueueCapacity:256}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "fan-out-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
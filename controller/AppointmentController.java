@@ -1,13 +1,25 @@
 package com.petcare.controller;
 
 import com.petcare.model.Appointment;
+import com.petcare.model.Vet;
 import com.petcare.service.AppointmentService;
+import com.petcare.service.PagedQueryService;
+import com.petcare.service.ResourceVersionService;
+import com.petcare.service.StatisticsService;
+import com.petcare.service.SummaryQueryService;
+import com.petcare.service.VetAvailabilityService;
+import com.petcare.service.VetDirectory;
+import com.petcare.repository.AppointmentSummary;
+import com.petcare.repository.VersionView;
+import com.petcare.util.ETags;
 import com.petcare.dto.AppointmentDTO;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.time.LocalDateTime;
@@ -21,22 +33,57 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
 
+    @Autowired
+    private PagedQueryService pagedQueryService;
+
+    @Autowired
+    private SummaryQueryService summaryQueryService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private VetAvailabilityService vetAvailabilityService;
+
+    @Autowired
+    private VetDirectory vetDirectory;
+
     // Create new appointment (Owners can book appointments)
     @PostMapping
     @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
     public ResponseEntity<?> createAppointment(@Valid @RequestBody AppointmentDTO appointmentDTO) {
+        // Hold the vet's time range so a concurrent booking of the same slot is rejected
+        String holdId;
+        try {
+            holdId = holdSlot(appointmentDTO, null);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error creating appointment: " + e.getMessage());
+        }
+        if (holdId == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error creating appointment: The vet is already booked at that time");
+        }
         try {
             Appointment appointment = appointmentService.createAppointment(appointmentDTO);
             return ResponseEntity.ok(appointment);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error creating appointment: " + e.getMessage());
+        } finally {
+            vetAvailabilityService.release(holdId);
         }
     }
 
     // Get all appointments
     @GetMapping
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Appointment>> getAllAppointments() {
+    public ResponseEntity<?> getAllAppointments(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getAllAppointments(cursor, size));
+        }
         List<Appointment> appointments = appointmentService.getAllAppointments();
         return ResponseEntity.ok(appointments);
     }
@@ -44,10 +91,19 @@ public class AppointmentController {
     // Get appointment by ID
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<?> getAppointmentById(@PathVariable Long id) {
+    public ResponseEntity<?> getAppointmentById(@PathVariable String id, WebRequest webRequest) {
         try {
+            VersionView version = resourceVersionService.getVersion(Appointment.class, id);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (version.getUpdatedAt() != null && webRequest.checkNotModified(
+                    ETags.strong(id, version.getUpdatedAt(), webRequest),
+                    ETags.lastModified(version.getUpdatedAt()))) {
+                return null; // 304 written by checkNotModified
+            }
             Appointment appointment = appointmentService.getAppointmentById(id);
-            return ResponseEntity.ok(appointment);
+            return ETags.ok(appointment.getId(), appointment.getUpdatedAt(), webRequest).body(appointment);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -56,33 +112,101 @@ public class AppointmentController {
     // Get appointments by owner
     @GetMapping("/owner/{ownerId}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Appointment>> getAppointmentsByOwner(@PathVariable Long ownerId) {
+    public ResponseEntity<?> getAppointmentsByOwner(@PathVariable String ownerId,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(defaultValue = "full") String view,
+                                                    WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getAppointmentsByOwnerId(ownerId,
+                        AppointmentSummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getAppointmentsByOwnerId(ownerId,
+                    Appointment.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Appointment.class, Criteria.where("ownerId").is(ownerId),
+                ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getAppointmentsByOwnerId(ownerId));
+        }
         List<Appointment> appointments = appointmentService.getAppointmentsByOwnerId(ownerId);
-        return ResponseEntity.ok(appointments);
+        return ResponseEntity.ok().eTag(etag).body(appointments);
     }
 
     // Get appointments by vet
     @GetMapping("/vet/{vetId}")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Appointment>> getAppointmentsByVet(@PathVariable Long vetId) {
+    public ResponseEntity<?> getAppointmentsByVet(@PathVariable String vetId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(defaultValue = "full") String view,
+                                                  WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getAppointmentsByVetId(vetId,
+                        AppointmentSummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getAppointmentsByVetId(vetId,
+                    Appointment.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Appointment.class, Criteria.where("vetId").is(vetId),
+                ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getAppointmentsByVetId(vetId));
+        }
         List<Appointment> appointments = appointmentService.getAppointmentsByVetId(vetId);
-        return ResponseEntity.ok(appointments);
+        return ResponseEntity.ok().eTag(etag).body(appointments);
     }
 
     // Get appointments by pet
     @GetMapping("/pet/{petId}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
-    public ResponseEntity<List<Appointment>> getAppointmentsByPet(@PathVariable Long petId) {
+    public ResponseEntity<?> getAppointmentsByPet(@PathVariable String petId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  @RequestParam(defaultValue = "full") String view,
+                                                  WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getAppointmentsByPetId(petId,
+                        AppointmentSummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getAppointmentsByPetId(petId,
+                    Appointment.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Appointment.class, Criteria.where("petId").is(petId),
+                ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getAppointmentsByPetId(petId));
+        }
         List<Appointment> appointments = appointmentService.getAppointmentsByPetId(petId);
-        return ResponseEntity.ok(appointments);
+        return ResponseEntity.ok().eTag(etag).body(appointments);
     }
 
     // Get appointments by date range
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Appointment>> getAppointmentsByDateRange(
+    public ResponseEntity<?> getAppointmentsByDateRange(
             @RequestParam LocalDateTime startDate,
-            @RequestParam LocalDateTime endDate) {
+            @RequestParam LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getAppointmentsByDateRange(startDate, endDate, cursor, size));
+        }
         List<Appointment> appointments = appointmentService.getAppointmentsByDateRange(startDate, endDate);
         return ResponseEntity.ok(appointments);
     }
@@ -100,14 +224,38 @@ public class AppointmentController {
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
     public ResponseEntity<?> updateAppointment(@PathVariable Long id, 
                                              @Valid @RequestBody AppointmentDTO appointmentDTO) {
+        // The appointment's own current booking does not conflict with its new time; it is
+        // excluded by its stored id, which need not match the numeric path id
+        String holdId;
+        try {
+            Appointment current = appointmentService.getAppointmentById(id);
+            holdId = holdSlot(appointmentDTO, current.getId());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error updating appointment: " + e.getMessage());
+        }
+        if (holdId == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body("Error updating appointment: The vet is already booked at that time");
+        }
         try {
             Appointment updatedAppointment = appointmentService.updateAppointment(id, appointmentDTO);
             return ResponseEntity.ok(updatedAppointment);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error updating appointment: " + e.getMessage());
+        } finally {
+            vetAvailabilityService.release(holdId);
         }
     }
 
+    // Bookings are indexed under the vet's stored id, so the hold is taken under it too
+    private String holdSlot(AppointmentDTO appointmentDTO, String appointmentId) {
+        Vet vet = vetDirectory.getVetById(appointmentDTO.getVetId())
+                .orElseThrow(() -> new IllegalArgumentException("Vet not found: " + appointmentDTO.getVetId()));
+        int durationMinutes = appointmentDTO.getDurationMinutes() == null ? 30 : appointmentDTO.getDurationMinutes();
+        return vetAvailabilityService.hold(vet.getId(), appointmentDTO.getAppointmentDateTime(), durationMinutes,
+                appointmentId);
+    }
+
     // Cancel appointment
     @PutMapping("/{id}/cancel")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
@@ -145,13 +293,12 @@ public class AppointmentController {
         }
     }
 
-    // Get appointment statistics
+    // Get appointment statistics (one aggregation per cache interval, shared by all callers)
     @GetMapping("/stats")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
     public ResponseEntity<?> getAppointmentStats() {
         try {
-            // This would return various statistics about appointments
-            return ResponseEntity.ok(appointmentService.getAppointmentStatistics());
+            return ResponseEntity.ok(statisticsService.getAppointmentStatistics());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching appointment statistics");
         }
@@ -5,23 +5,44 @@ import com.petcare.dto.SignUpRequest;
 import com.petcare.dto.JwtAuthenticationResponse;
 import com.petcare.model.User;
 import com.petcare.service.AuthService;
+import com.petcare.service.SignupDuplicateFilter;
+import com.petcare.service.UserCache;
+import com.petcare.util.ETags;
 import com.petcare.security.JwtTokenProvider;
+import com.petcare.security.PasswordHashingExecutor;
+import com.petcare.security.TokenRevocationStore;
+import com.petcare.security.UserPrincipal;
+import com.petcare.security.VerifiedToken;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoWriteException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class AuthController {
 
+    private static final Pattern DUPLICATE_KEY_INDEX = Pattern.compile("^E11000 .*? index: (\\S+) dup key: ");
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -31,67 +52,138 @@ public class AuthController {
     @Autowired
     private JwtTokenProvider tokenProvider;
 
-    // User Registration
+    @Autowired
+    private TokenRevocationStore revocationStore;
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Autowired
+    private SignupDuplicateFilter signupDuplicateFilter;
+
+    @Autowired
+    private UserCache userCache;
+
+    // User Registration (uniqueness is enforced by the unique indexes on users)
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignUpRequest signUpRequest) {
         try {
-            // Check if username is already taken
-            if (authService.existsByUsername(signUpRequest.getUsername())) {
-                return ResponseEntity.badRequest()
-                        .body("Error: Username is already taken!");
+            // Blank phone numbers must not take part in the sparse unique index
+            if (!StringUtils.hasText(signUpRequest.getPhoneNumber())) {
+                signUpRequest.setPhoneNumber(null);
             }
 
-            // Check if email is already in use
-            if (authService.existsByEmail(signUpRequest.getEmail())) {
+            // Reject likely duplicates before paying for the password hash
+            String duplicate = signupDuplicateFilter.findDuplicate(signUpRequest);
+            if (duplicate != null) {
                 return ResponseEntity.badRequest()
-                        .body("Error: Email is already in use!");
+                        .body(duplicate);
             }
 
-            // Create new user account
+            // Create new user account in a single insert
             User user = authService.createUser(signUpRequest);
+            signupDuplicateFilter.register(user);
 
             return ResponseEntity.ok()
                     .body("User registered successfully! User ID: " + user.getId());
 
         } catch (Exception e) {
+            DuplicateKeyException duplicateKey = findDuplicateKey(e);
+            if (duplicateKey != null) {
+                return ResponseEntity.badRequest()
+                        .body(duplicateKeyMessage(duplicateKey));
+            }
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error: Could not register user - " + e.getMessage());
         }
     }
 
-    // User Login
+    private DuplicateKeyException findDuplicateKey(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof DuplicateKeyException duplicateKey) {
+                return duplicateKey;
+            }
+        }
+        return null;
+    }
+
+    // Map the violated unique index back to the user-facing message. The index name is
+    // read from the server's write error, not searched for anywhere in the message,
+    // since the duplicate value quoted after it can contain any text.
+    private String duplicateKeyMessage(DuplicateKeyException e) {
+        String index = duplicateKeyIndex(e);
+        if ("email".equals(index)) {
+            return "Error: Email is already in use!";
+        }
+        if ("phoneNumber".equals(index)) {
+            return "Error: Phone number is already in use!";
+        }
+        return "Error: Username is already taken!";
+    }
+
+    // E11000 errors read "... collection: <ns> index: <name> dup key: { ... }"
+    private String duplicateKeyIndex(DuplicateKeyException e) {
+        String errorMessage = null;
+        if (e.getCause() instanceof MongoWriteException writeException) {
+            errorMessage = writeException.getError().getMessage();
+        } else if (e.getCause() instanceof MongoCommandException commandException) {
+            errorMessage = commandException.getErrorMessage();
+        }
+        if (errorMessage == null) {
+            return null;
+        }
+        Matcher matcher = DUPLICATE_KEY_INDEX.matcher(errorMessage);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    // User Login (password check runs on the bounded hashing pool, not the request thread)
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            loginRequest.getUsernameOrEmail(),
-                            loginRequest.getPassword()
-                    )
-            );
-
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            
-            // Get user details first
-            User user = authService.getUserByUsernameOrEmail(loginRequest.getUsernameOrEmail());
-            
-            // Generate token
-            String jwt = tokenProvider.generateToken(authentication);
+            return passwordHashingExecutor.submit(() -> authenticationManager.authenticate(
+                            new UsernamePasswordAuthenticationToken(
+                                    loginRequest.getUsernameOrEmail(),
+                                    loginRequest.getPassword()
+                            )))
+                    .<ResponseEntity<?>>thenApply(authentication -> {
+                        // The principal carries the user loaded during authentication
+                        User user = ((UserPrincipal) authentication.getPrincipal()).getUser();
+
+                        // Generate token
+                        String jwt = tokenProvider.generateTokenFromUser(user);
+
+                        return ResponseEntity.ok(new JwtAuthenticationResponse(
+                                jwt,
+                                user.getId(),
+                                user.getUsername(),
+                                user.getEmail(),
+                                user.getRole()
+                        ));
+                    })
+                    .exceptionally(this::loginFailed);
+
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(loginUnavailable());
+        }
+    }
 
-            return ResponseEntity.ok(new JwtAuthenticationResponse(
-                    jwt,
-                    user.getId(),
-                    user.getUsername(),
-                    user.getEmail(),
-                    user.getRole()
-            ));
+    private ResponseEntity<?> loginFailed(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
 
-        } catch (Exception e) {
-            System.err.println("Login error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body("Error: Invalid username/email or password!");
+        if (cause instanceof TimeoutException || cause instanceof RejectedExecutionException) {
+            return loginUnavailable();
         }
+
+        System.err.println("Login error: " + cause.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .body("Error: Invalid username/email or password!");
+    }
+
+    private ResponseEntity<?> loginUnavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Error: Login service is busy, please retry shortly!");
     }
 
     // Refresh Token
@@ -101,9 +193,11 @@ public class AuthController {
             if (token != null && token.startsWith("Bearer ")) {
                 String jwt = token.substring(7);
                 
-                if (tokenProvider.validateToken(jwt)) {
-                    String username = tokenProvider.getUsernameFromJWT(jwt);
-                    User user = authService.getUserByUsername(username);
+                Optional<VerifiedToken> verifiedToken = tokenProvider.verifyToken(jwt);
+
+                if (verifiedToken.isPresent() && !revocationStore.isRevoked(verifiedToken.get())) {
+                    String username = verifiedToken.get().getSubject();
+                    User user = userCache.getByUsername(username);
                     
                     String newToken = tokenProvider.generateTokenFromUser(user);
                     
@@ -130,16 +224,21 @@ public class AuthController {
 
     // Get Current User
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(Authentication authentication) {
+    public ResponseEntity<?> getCurrentUser(Authentication authentication, WebRequest webRequest) {
         try {
             if (authentication == null) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                         .body("Error: User not authenticated!");
             }
 
-            User user = authService.getUserByUsername(authentication.getName());
+            User user = userCache.getByUsername(authentication.getName());
+            if (user.getUpdatedAt() != null && webRequest.checkNotModified(
+                    ETags.strong(user.getId(), user.getUpdatedAt(), webRequest),
+                    ETags.lastModified(user.getUpdatedAt()))) {
+                return null; // 304 written by checkNotModified
+            }
             
-            return ResponseEntity.ok(user);
+            return ETags.ok(user.getId(), user.getUpdatedAt(), webRequest).body(user);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -147,13 +246,32 @@ public class AuthController {
         }
     }
 
-    // Logout
+    // Logout (revokes the presented token, or every token of the user with allDevices=true)
     @PostMapping("/signout")
-    public ResponseEntity<?> logoutUser() {
-        // In a stateless JWT implementation, logout is typically handled client-side
-        // by removing the token from storage
-        return ResponseEntity.ok()
-                .body("User logged out successfully!");
+    public ResponseEntity<?> logoutUser(@RequestHeader(value = "Authorization", required = false) String token,
+                                        @RequestParam(defaultValue = "false") boolean allDevices) {
+        try {
+            if (token != null && token.startsWith("Bearer ")) {
+                Optional<VerifiedToken> verifiedToken = tokenProvider.verifyToken(token.substring(7));
+
+                if (verifiedToken.isPresent()) {
+                    VerifiedToken jwt = verifiedToken.get();
+                    // Tokens issued before jti was added can only be revoked user-wide
+                    if (allDevices || jwt.getTokenId() == null) {
+                        revocationStore.revokeAllForUser(jwt.getSubject());
+                    } else {
+                        revocationStore.revokeToken(jwt);
+                    }
+                }
+            }
+
+            return ResponseEntity.ok()
+                    .body("User logged out successfully!");
+
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error: Could not log out user - " + e.getMessage());
+        }
     }
 
     // Change Password
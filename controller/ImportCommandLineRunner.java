@@ -0,0 +1,68 @@
+package com.petcare.controller;
+
+import com.petcare.dto.ImportReport;
+import com.petcare.service.BulkImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+// One-shot import from the command line, e.g.
+//   java -jar pet-care-system.jar --app.import.file=pets.csv --app.import.kind=pets
+// The format defaults to the file extension. Errors go to <file>.errors.ndjson
+// and the process exits with 1 when any line failed.
+@Component
+@ConditionalOnProperty(name = "app.import.file")
+public class ImportCommandLineRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportCommandLineRunner.class);
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${app.import.file}")
+    private String file;
+
+    @Value("${app.import.kind}")
+    private String kind;
+
+    @Value("${app.import.format:}")
+    private String format;
+
+    @Override
+    public void run(String... args) throws Exception {
+        Path path = Paths.get(file);
+        String fileFormat = format.isEmpty() ? extension(path) : format;
+        Path errorFile = Paths.get(file + ".errors.ndjson");
+
+        ImportReport report;
+        try (InputStream input = Files.newInputStream(path)) {
+            report = bulkImportService.importRecords(kind, fileFormat, input, UUID.randomUUID().toString(), errorFile);
+        }
+        logger.info("Imported {} of {} {} records from {}{}", report.getImported(), report.getRead(), kind, path,
+                report.getErrorFile() == null ? "" : "; errors in " + report.getErrorFile());
+
+        int exitCode = report.getFailed() == 0 ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static String extension(Path path) {
+        String name = path.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot < 0 ? "" : name.substring(dot + 1);
+    }
+}
@@ -0,0 +1,60 @@
+package com.petcare.controller;
+
+import com.petcare.dto.ImportReport;
+import com.petcare.service.BulkImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ImportController {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    // Import pets or medical history from a CSV or NDJSON request body. The body is
+    // read as a stream (send it raw, not as multipart), so files of any size work.
+    @PostMapping("/{kind}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importRecords(@PathVariable String kind,
+                                           @RequestParam(defaultValue = "csv") String format,
+                                           HttpServletRequest request) {
+        try {
+            ImportReport report = bulkImportService.importRecords(kind, format, request.getInputStream());
+            // An import that stopped early still reports what it wrote and where its errors are
+            HttpStatus status = report.getError() == null ? HttpStatus.OK : HttpStatus.INTERNAL_SERVER_ERROR;
+            return ResponseEntity.status(status).body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error importing records: " + e.getMessage());
+        }
+    }
+
+    // Download the per-line error report of an import
+    @GetMapping("/{importId}/errors")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getImportErrors(@PathVariable String importId) {
+        try {
+            Path errorFile = bulkImportService.errorFile(importId);
+            if (!Files.exists(errorFile)) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                    .body(new FileSystemResource(errorFile));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: Invalid import id");
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.petcare.controller;
 
 import com.petcare.model.MedicalHistory;
+import com.petcare.service.MedicalHistorySearchIndex;
 import com.petcare.service.MedicalHistoryService;
+import com.petcare.service.PagedQueryService;
+import com.petcare.service.SummaryQueryService;
+import com.petcare.repository.MedicalHistorySummary;
+import com.petcare.service.RecordExportService;
+import com.petcare.service.ResourceVersionService;
+import com.petcare.repository.VersionView;
+import com.petcare.util.ETags;
+import com.petcare.util.NdjsonStreams;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
@@ -20,6 +34,24 @@ public class MedicalHistoryController {
     @Autowired
     private MedicalHistoryService medicalHistoryService;
 
+    @Autowired
+    private MedicalHistorySearchIndex searchIndex;
+
+    @Autowired
+    private PagedQueryService pagedQueryService;
+
+    @Autowired
+    private SummaryQueryService summaryQueryService;
+
+    @Autowired
+    private RecordExportService recordExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     // Create medical history record
     @PostMapping
     @PreAuthorize("hasRole('VET')")
@@ -35,7 +67,11 @@ public class MedicalHistoryController {
     // Get all medical history records
     @GetMapping
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<MedicalHistory>> getAllMedicalHistories() {
+    public ResponseEntity<?> getAllMedicalHistories(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getAllMedicalHistories(cursor, size));
+        }
         List<MedicalHistory> records = medicalHistoryService.getAllMedicalHistories();
         return ResponseEntity.ok(records);
     }
@@ -43,10 +79,19 @@ public class MedicalHistoryController {
     // Get medical history by ID
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
-    public ResponseEntity<?> getMedicalHistoryById(@PathVariable String id) {
+    public ResponseEntity<?> getMedicalHistoryById(@PathVariable String id, WebRequest webRequest) {
         try {
+            VersionView version = resourceVersionService.getVersion(MedicalHistory.class, id);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
+            if (version.getUpdatedAt() != null && webRequest.checkNotModified(
+                    ETags.strong(id, version.getUpdatedAt(), webRequest),
+                    ETags.lastModified(version.getUpdatedAt()))) {
+                return null; // 304 written by checkNotModified
+            }
             MedicalHistory record = medicalHistoryService.getMedicalHistoryById(id);
-            return ResponseEntity.ok(record);
+            return ETags.ok(record.getId(), record.getUpdatedAt(), webRequest).body(record);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -55,42 +100,107 @@ public class MedicalHistoryController {
     // Get medical history by pet ID
     @GetMapping("/pet/{petId}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
-    public ResponseEntity<List<MedicalHistory>> getMedicalHistoriesByPetId(@PathVariable String petId) {
+    public ResponseEntity<?> getMedicalHistoriesByPetId(@PathVariable String petId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(defaultValue = "full") String view,
+                                                        WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getMedicalHistoriesByPetId(petId,
+                        MedicalHistorySummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getMedicalHistoriesByPetId(petId,
+                    MedicalHistory.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(MedicalHistory.class, Criteria.where("petId").is(petId),
+                ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getMedicalHistoriesByPetId(petId));
+        }
         List<MedicalHistory> records = medicalHistoryService.getMedicalHistoriesByPetId(petId);
-        return ResponseEntity.ok(records);
+        return ResponseEntity.ok().eTag(etag).body(records);
     }
 
     // Get medical history by vet ID
     @GetMapping("/vet/{vetId}")
     @PreAuthorize("hasRole('VET')")
-    public ResponseEntity<List<MedicalHistory>> getMedicalHistoriesByVetId(@PathVariable String vetId) {
+    public ResponseEntity<?> getMedicalHistoriesByVetId(@PathVariable String vetId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        @RequestParam(defaultValue = "full") String view,
+                                                        WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getMedicalHistoriesByVetId(vetId,
+                        MedicalHistorySummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getMedicalHistoriesByVetId(vetId,
+                    MedicalHistory.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(MedicalHistory.class, Criteria.where("vetId").is(vetId),
+                ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getMedicalHistoriesByVetId(vetId));
+        }
         List<MedicalHistory> records = medicalHistoryService.getMedicalHistoriesByVetId(vetId);
-        return ResponseEntity.ok(records);
+        return ResponseEntity.ok().eTag(etag).body(records);
     }
 
-    // Get recent medical history for a pet
+    // Get recent medical history for a pet (newest first, at most limit records)
     @GetMapping("/pet/{petId}/recent")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
-    public ResponseEntity<List<MedicalHistory>> getRecentMedicalHistoryForPet(@PathVariable String petId) {
-        List<MedicalHistory> records = medicalHistoryService.getRecentMedicalHistoryForPet(petId);
+    public ResponseEntity<List<MedicalHistory>> getRecentMedicalHistoryForPet(@PathVariable String petId,
+                                                                              @RequestParam(required = false) Integer limit) {
+        List<MedicalHistory> records = pagedQueryService.getRecentMedicalHistoriesByPetId(petId, limit);
         return ResponseEntity.ok(records);
     }
 
     // Get medical history by date range
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
-    public ResponseEntity<List<MedicalHistory>> getMedicalHistoriesByDateRange(
+    public ResponseEntity<?> getMedicalHistoriesByDateRange(
             @RequestParam LocalDate startDate,
-            @RequestParam LocalDate endDate) {
+            @RequestParam LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getMedicalHistoriesByDateRange(startDate, endDate, cursor, size));
+        }
         List<MedicalHistory> records = medicalHistoryService.getMedicalHistoriesByDateRange(startDate, endDate);
         return ResponseEntity.ok(records);
     }
 
-    // Get medical history by diagnosis
+    // Stream medical history by date range as NDJSON, one record per line, read from a cursor
+    @GetMapping(value = "/date-range", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('OWNER') or hasRole('VET')")
+    public ResponseEntity<StreamingResponseBody> streamMedicalHistoriesByDateRange(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonStreams.MEDIA_TYPE))
+                .body(NdjsonStreams.body(objectMapper,
+                        () -> recordExportService.streamMedicalHistoriesByDateRange(startDate, endDate)));
+    }
+
+    // Search medical history by diagnosis, visit reason or symptoms (ranked, served from the search index)
     @GetMapping("/diagnosis")
     @PreAuthorize("hasRole('VET')")
-    public ResponseEntity<List<MedicalHistory>> getMedicalHistoriesByDiagnosis(@RequestParam String diagnosis) {
-        List<MedicalHistory> records = medicalHistoryService.getMedicalHistoriesByDiagnosis(diagnosis);
+    public ResponseEntity<?> getMedicalHistoriesByDiagnosis(@RequestParam String diagnosis,
+                                                            @RequestParam(defaultValue = "20") int limit) {
+        if (!searchIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body("Error: Medical history search index is still loading");
+        }
+        List<MedicalHistory> records = searchIndex.search(diagnosis, Math.min(Math.max(limit, 1), 100));
         return ResponseEntity.ok(records);
     }
 
@@ -1,14 +1,26 @@
 package com.petcare.controller;
 
 import com.petcare.model.Pet;
+import com.petcare.service.PetOwnershipIndex;
 import com.petcare.service.PetService;
+import com.petcare.service.PagedQueryService;
+import com.petcare.service.PetTimelineService;
+import com.petcare.service.StatisticsService;
+import com.petcare.service.ResourceVersionService;
+import com.petcare.service.SummaryQueryService;
+import com.petcare.service.UserCache;
+import com.petcare.repository.PetSummary;
+import com.petcare.repository.VersionView;
+import com.petcare.util.ETags;
 import com.petcare.dto.PetDTO;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -21,6 +33,27 @@ public class PetController {
     @Autowired
     private PetService petService;
 
+    @Autowired
+    private PagedQueryService pagedQueryService;
+
+    @Autowired
+    private SummaryQueryService summaryQueryService;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private PetTimelineService petTimelineService;
+
+    @Autowired
+    private PetOwnershipIndex petOwnershipIndex;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
+    @Autowired
+    private UserCache userCache;
+
     // Create new pet (Only owners can create pets)
     @PostMapping
     @PreAuthorize("hasRole('OWNER')")
@@ -34,54 +67,112 @@ public class PetController {
         }
     }
 
-    // Get all pets (Vets and Admins can see all pets)
+    // Get all pets (Vets and Admins can see all pets; pass cursor/size for keyset pagination)
     @GetMapping
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Pet>> getAllPets() {
+    public ResponseEntity<?> getAllPets(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getAllPets(cursor, size));
+        }
         List<Pet> pets = petService.getAllPets();
         return ResponseEntity.ok(pets);
     }
 
-    // Get pet by ID
+    // Get pet by ID (304 when the client's ETag or Last-Modified is still current)
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
     public ResponseEntity<?> getPetById(@PathVariable String id, 
-                                      Authentication authentication) {
+                                      Authentication authentication,
+                                      WebRequest webRequest) {
         try {
-            Pet pet = petService.getPetById(id);
+            VersionView version = resourceVersionService.getVersion(Pet.class, id);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
             
             // Check if owner is accessing their own pet
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!petService.isPetOwnedByUser(id, authentication.getName())) {
+                if (!petOwnershipIndex.isPetOwnedBy(id, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only view your own pets");
                 }
             }
             
-            return ResponseEntity.ok(pet);
+            if (version.getUpdatedAt() != null && webRequest.checkNotModified(
+                    ETags.strong(id, version.getUpdatedAt(), webRequest),
+                    ETags.lastModified(version.getUpdatedAt()))) {
+                return null; // 304 written by checkNotModified
+            }
+            Pet pet = petService.getPetById(id);
+            return ETags.ok(pet.getId(), pet.getUpdatedAt(), webRequest).body(pet);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Get a pet's appointments, vaccinations and medical history as one newest-first timeline
+    @GetMapping("/{id}/timeline")
+    @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
+    public ResponseEntity<?> getPetTimeline(@PathVariable String id,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            Authentication authentication) {
+        try {
+            // Check if owner is accessing their own pet
+            if (authentication.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
+                if (!petOwnershipIndex.isPetOwnedBy(id, authentication.getName())) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                            .body("Access denied: You can only view your own pets");
+                }
+            }
+
+            return ResponseEntity.ok(petTimelineService.getTimeline(id, cursor, size));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error fetching pet timeline: " + e.getMessage());
+        }
+    }
+
     // Get pets by owner
     @GetMapping("/owner/{ownerId}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
     public ResponseEntity<?> getPetsByOwner(@PathVariable String ownerId, 
-                                          Authentication authentication) {
+                                          @RequestParam(required = false) String cursor,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(defaultValue = "full") String view,
+                                          Authentication authentication,
+                                          WebRequest webRequest) {
         try {
             // Check if owner is accessing their own pets
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!petService.isOwnerUser(ownerId, authentication.getName())) {
+                if (!petOwnershipIndex.isOwner(ownerId, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only view your own pets");
                 }
             }
             
+            boolean summary = "summary".equalsIgnoreCase(view);
+            if (cursor != null || size != null) {
+                if (summary) {
+                    return ResponseEntity.ok(pagedQueryService.getPetsByOwnerId(ownerId,
+                            PetSummary.class, cursor, size));
+                }
+                return ResponseEntity.ok(pagedQueryService.getPetsByOwnerId(ownerId,
+                        Pet.class, cursor, size));
+            }
+            String etag = resourceVersionService.getListETag(Pet.class, Criteria.where("ownerId").is(ownerId),
+                    ETags.variant(summary ? "summary" : "full", webRequest));
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 written by checkNotModified
+            }
+            if (summary) {
+                return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getPetsByOwnerId(ownerId));
+            }
             List<Pet> pets = petService.getPetsByOwnerId(ownerId);
-            return ResponseEntity.ok(pets);
+            return ResponseEntity.ok().eTag(etag).body(pets);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching pets: " + e.getMessage());
         }
@@ -90,10 +181,32 @@ public class PetController {
     // Get current user's pets
     @GetMapping("/my-pets")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<?> getMyPets(Authentication authentication) {
+    public ResponseEntity<?> getMyPets(@RequestParam(required = false) String cursor,
+                                       @RequestParam(required = false) Integer size,
+                                       @RequestParam(defaultValue = "full") String view,
+                                       Authentication authentication,
+                                       WebRequest webRequest) {
         try {
+            boolean summary = "summary".equalsIgnoreCase(view);
+            if (cursor != null || size != null) {
+                if (summary) {
+                    return ResponseEntity.ok(pagedQueryService.getPetsByUsername(authentication.getName(),
+                            PetSummary.class, cursor, size));
+                }
+                return ResponseEntity.ok(pagedQueryService.getPetsByUsername(authentication.getName(),
+                        Pet.class, cursor, size));
+            }
+            String ownerId = userCache.getByUsername(authentication.getName()).getId();
+            String etag = resourceVersionService.getListETag(Pet.class, Criteria.where("ownerId").is(ownerId),
+                    ETags.variant(summary ? "summary" : "full", webRequest));
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 written by checkNotModified
+            }
+            if (summary) {
+                return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getPetsByUsername(authentication.getName()));
+            }
             List<Pet> pets = petService.getPetsByUsername(authentication.getName());
-            return ResponseEntity.ok(pets);
+            return ResponseEntity.ok().eTag(etag).body(pets);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching your pets: " + e.getMessage());
         }
@@ -102,24 +215,67 @@ public class PetController {
     // Get pets by species
     @GetMapping("/species/{species}")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Pet>> getPetsBySpecies(@PathVariable String species) {
+    public ResponseEntity<?> getPetsBySpecies(@PathVariable String species,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestParam(defaultValue = "full") String view,
+                                              WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getPetsBySpecies(species, PetSummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getPetsBySpecies(species, Pet.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Pet.class, Criteria.where("species").is(species),
+                PagedQueryService.CASE_INSENSITIVE, ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getPetsBySpecies(species));
+        }
         List<Pet> pets = petService.getPetsBySpecies(species);
-        return ResponseEntity.ok(pets);
+        return ResponseEntity.ok().eTag(etag).body(pets);
     }
 
     // Get pets by breed
     @GetMapping("/breed/{breed}")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Pet>> getPetsByBreed(@PathVariable String breed) {
+    public ResponseEntity<?> getPetsByBreed(@PathVariable String breed,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(defaultValue = "full") String view,
+                                            WebRequest webRequest) {
+        boolean summary = "summary".equalsIgnoreCase(view);
+        if (cursor != null || size != null) {
+            if (summary) {
+                return ResponseEntity.ok(pagedQueryService.getPetsByBreed(breed, PetSummary.class, cursor, size));
+            }
+            return ResponseEntity.ok(pagedQueryService.getPetsByBreed(breed, Pet.class, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Pet.class, Criteria.where("breed").is(breed),
+                PagedQueryService.CASE_INSENSITIVE, ETags.variant(summary ? "summary" : "full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        if (summary) {
+            return ResponseEntity.ok().eTag(etag).body(summaryQueryService.getPetsByBreed(breed));
+        }
         List<Pet> pets = petService.getPetsByBreed(breed);
-        return ResponseEntity.ok(pets);
+        return ResponseEntity.ok().eTag(etag).body(pets);
     }
 
     // Get pets by age range
     @GetMapping("/age-range")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Pet>> getPetsByAgeRange(@RequestParam int minAge, 
-                                                     @RequestParam int maxAge) {
+    public ResponseEntity<?> getPetsByAgeRange(@RequestParam int minAge, 
+                                               @RequestParam int maxAge,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getPetsByAgeRange(minAge, maxAge, cursor, size));
+        }
         List<Pet> pets = petService.getPetsByAgeRange(minAge, maxAge);
         return ResponseEntity.ok(pets);
     }
@@ -142,7 +298,7 @@ public class PetController {
             // Check if owner is updating their own pet
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!petService.isPetOwnedByUser(id, authentication.getName())) {
+                if (!petOwnershipIndex.isPetOwnedBy(id, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only update your own pets");
                 }
@@ -177,7 +333,7 @@ public class PetController {
             // Check if owner is deleting their own pet
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!petService.isPetOwnedByUser(id, authentication.getName())) {
+                if (!petOwnershipIndex.isPetOwnedBy(id, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only delete your own pets");
                 }
@@ -190,12 +346,12 @@ public class PetController {
         }
     }
 
-    // Get pet statistics
+    // Get pet statistics (one aggregation per cache interval, shared by all callers)
     @GetMapping("/stats")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
     public ResponseEntity<?> getPetStatistics() {
         try {
-            return ResponseEntity.ok(petService.getPetStatistics());
+            return ResponseEntity.ok(statisticsService.getPetStatistics());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching pet statistics");
         }
@@ -0,0 +1,94 @@
+package com.petcare.controller;
+
+import com.petcare.model.Appointment;
+import com.petcare.model.Pet;
+import com.petcare.model.Vaccination;
+import com.petcare.model.Vet;
+import com.petcare.repository.reactive.ReactiveAppointmentRepository;
+import com.petcare.repository.reactive.ReactivePetRepository;
+import com.petcare.repository.reactive.ReactiveVaccinationRepository;
+import com.petcare.repository.reactive.ReactiveVetRepository;
+import com.petcare.util.NdjsonStreams;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Reactive read path, active with the "reactive" profile. Requests that accept
+// application/x-ndjson are answered from the reactive Mongo driver and streamed
+// record by record. Other media types keep using the blocking controllers.
+//
+// This runs on Spring MVC and Tomcat, not on WebFlux. The security filter chain,
+// the JWT filter and every other controller are servlet-based, and a WebFlux server
+// would mean porting all of them. MVC adapts the returned Flux through async request
+// processing instead: the Tomcat thread is handed back as soon as the Flux is
+// returned, and each record is written as the driver emits it. So no request thread
+// waits on Mongo, though each open response still holds a Tomcat connection.
+// ReadPathLoadRunner (src/test) compares this path with the servlet one.
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@Profile("reactive")
+public class ReactiveReadController {
+
+    @Autowired
+    private ReactivePetRepository petRepository;
+
+    @Autowired
+    private ReactiveVetRepository vetRepository;
+
+    @Autowired
+    private ReactiveVaccinationRepository vaccinationRepository;
+
+    @Autowired
+    private ReactiveAppointmentRepository appointmentRepository;
+
+    // Get all pets
+    @GetMapping(value = "/pets", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
+    public Flux<Pet> streamAllPets() {
+        return petRepository.findAll();
+    }
+
+    // Get all vets
+    @GetMapping(value = "/vets", produces = NdjsonStreams.MEDIA_TYPE)
+    public Flux<Vet> streamAllVets() {
+        return vetRepository.findAll();
+    }
+
+    // Get upcoming vaccinations (due within next 30 days)
+    @GetMapping(value = "/vaccinations/upcoming", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
+    public Flux<Vaccination> streamUpcomingVaccinations() {
+        LocalDate today = LocalDate.now();
+        return vaccinationRepository.findUpcomingVaccinations(today, today.plusDays(30));
+    }
+
+    // Get overdue vaccinations
+    @GetMapping(value = "/vaccinations/overdue", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
+    public Flux<Vaccination> streamOverdueVaccinations() {
+        return vaccinationRepository.findOverdueVaccinations(LocalDate.now());
+    }
+
+    // Get today's appointments
+    @GetMapping(value = "/appointments/today", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
+    public Flux<Appointment> streamTodayAppointments() {
+        LocalDate today = LocalDate.now();
+        return appointmentRepository.findByAppointmentDateTimeBetween(today.atStartOfDay(), today.atTime(LocalTime.MAX));
+    }
+
+    // Get appointments by date range
+    @GetMapping(value = "/appointments/date-range", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
+    public Flux<Appointment> streamAppointmentsByDateRange(@RequestParam LocalDateTime startDate,
+                                                          @RequestParam LocalDateTime endDate) {
+        return appointmentRepository.findByAppointmentDateTimeBetween(startDate, endDate);
+    }
+}
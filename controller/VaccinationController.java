@@ -2,13 +2,30 @@ package com.petcare.controller;
 
 import com.petcare.model.Vaccination;
 import com.petcare.service.VaccinationService;
+import com.petcare.service.PagedQueryService;
+import com.petcare.service.PetOwnershipIndex;
+import com.petcare.service.ResourceVersionService;
+import com.petcare.service.BulkVaccinationService;
+import com.petcare.service.RecordExportService;
+import com.petcare.service.StatisticsService;
+import com.petcare.service.VaccinationReminderService;
+import com.petcare.repository.VersionView;
+import com.petcare.util.ETags;
+import com.petcare.util.NdjsonStreams;
+import com.petcare.dto.BulkResult;
 import com.petcare.dto.VaccinationDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
@@ -22,6 +39,30 @@ public class VaccinationController {
     @Autowired
     private VaccinationService vaccinationService;
 
+    @Autowired
+    private PagedQueryService pagedQueryService;
+
+    @Autowired
+    private RecordExportService recordExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private BulkVaccinationService bulkVaccinationService;
+
+    @Autowired
+    private VaccinationReminderService vaccinationReminderService;
+
+    @Autowired
+    private PetOwnershipIndex petOwnershipIndex;
+
+    @Autowired
+    private ResourceVersionService resourceVersionService;
+
     // Create new vaccination record (Only vets can create vaccination records)
     @PostMapping
     @PreAuthorize("hasRole('VET')")
@@ -38,29 +79,59 @@ public class VaccinationController {
     // Get all vaccination records
     @GetMapping
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Vaccination>> getAllVaccinations() {
+    public ResponseEntity<?> getAllVaccinations(@RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getAllVaccinations(cursor, size));
+        }
         List<Vaccination> vaccinations = vaccinationService.getAllVaccinations();
         return ResponseEntity.ok(vaccinations);
     }
 
-    // Get vaccination by ID
+    // Record many vaccinations at once (vaccination drives); every item gets its own result
+    @PostMapping("/bulk")
+    @PreAuthorize("hasRole('VET')")
+    public ResponseEntity<?> createVaccinationsBulk(@RequestBody List<VaccinationDTO> vaccinationDTOs,
+                                                    Authentication authentication) {
+        try {
+            BulkResult result = bulkVaccinationService.createVaccinations(vaccinationDTOs, authentication.getName());
+            HttpStatus status = result.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(result);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error creating vaccination records: " + e.getMessage());
+        }
+    }
+
+    // Get vaccination by ID (304 when the client's ETag or Last-Modified is still current)
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<?> getVaccinationById(@PathVariable Long id,
-                                              Authentication authentication) {
+    public ResponseEntity<?> getVaccinationById(@PathVariable String id,
+                                              Authentication authentication,
+                                              WebRequest webRequest) {
         try {
-            Vaccination vaccination = vaccinationService.getVaccinationById(id);
+            VersionView version = resourceVersionService.getVersion(Vaccination.class, id);
+            if (version == null) {
+                return ResponseEntity.notFound().build();
+            }
             
             // Check if owner is accessing their own pet's vaccination record
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!vaccinationService.isVaccinationOwnedByUser(id, authentication.getName())) {
+                if (!petOwnershipIndex.isVaccinationOwnedBy(id, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only view your own pet's vaccination records");
                 }
             }
             
-            return ResponseEntity.ok(vaccination);
+            if (version.getUpdatedAt() != null && webRequest.checkNotModified(
+                    ETags.strong(id, version.getUpdatedAt(), webRequest),
+                    ETags.lastModified(version.getUpdatedAt()))) {
+                return null; // 304 written by checkNotModified
+            }
+            Vaccination vaccination = vaccinationService.getVaccinationById(id);
+            return ETags.ok(vaccination.getId(), vaccination.getUpdatedAt(), webRequest).body(vaccination);
         } catch (Exception e) {
             return ResponseEntity.notFound().build();
         }
@@ -69,20 +140,31 @@ public class VaccinationController {
     // Get vaccinations by pet ID
     @GetMapping("/pet/{petId}")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<?> getVaccinationsByPet(@PathVariable Long petId,
-                                                Authentication authentication) {
+    public ResponseEntity<?> getVaccinationsByPet(@PathVariable String petId,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size,
+                                                Authentication authentication,
+                                                WebRequest webRequest) {
         try {
             // Check if owner is accessing their own pet's vaccination records
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!vaccinationService.isPetOwnedByUser(petId, authentication.getName())) {
+                if (!petOwnershipIndex.isPetOwnedBy(petId, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only view your own pet's vaccination records");
                 }
             }
             
+            if (cursor != null || size != null) {
+                return ResponseEntity.ok(pagedQueryService.getVaccinationsByPetId(petId, cursor, size));
+            }
+            String etag = resourceVersionService.getListETag(Vaccination.class, Criteria.where("petId").is(petId),
+                    ETags.variant("full", webRequest));
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 written by checkNotModified
+            }
             List<Vaccination> vaccinations = vaccinationService.getVaccinationsByPetId(petId);
-            return ResponseEntity.ok(vaccinations);
+            return ResponseEntity.ok().eTag(etag).body(vaccinations);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching vaccination records: " + e.getMessage());
         }
@@ -91,33 +173,76 @@ public class VaccinationController {
     // Get vaccinations by veterinarian
     @GetMapping("/vet/{vetId}")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Vaccination>> getVaccinationsByVet(@PathVariable Long vetId) {
+    public ResponseEntity<?> getVaccinationsByVet(@PathVariable String vetId,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer size,
+                                                  WebRequest webRequest) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getVaccinationsByVetId(vetId, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Vaccination.class, Criteria.where("vetId").is(vetId),
+                ETags.variant("full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
         List<Vaccination> vaccinations = vaccinationService.getVaccinationsByVetId(vetId);
-        return ResponseEntity.ok(vaccinations);
+        return ResponseEntity.ok().eTag(etag).body(vaccinations);
     }
 
     // Get vaccinations by vaccine type
     @GetMapping("/vaccine-type/{vaccineType}")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Vaccination>> getVaccinationsByVaccineType(@PathVariable String vaccineType) {
+    public ResponseEntity<?> getVaccinationsByVaccineType(@PathVariable String vaccineType,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          WebRequest webRequest) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getVaccinationsByVaccineType(vaccineType, cursor, size));
+        }
+        String etag = resourceVersionService.getListETag(Vaccination.class, Criteria.where("vaccineType").is(vaccineType),
+                PagedQueryService.CASE_INSENSITIVE, ETags.variant("full", webRequest));
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
         List<Vaccination> vaccinations = vaccinationService.getVaccinationsByVaccineType(vaccineType);
-        return ResponseEntity.ok(vaccinations);
+        return ResponseEntity.ok().eTag(etag).body(vaccinations);
     }
 
     // Get vaccinations by date range
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Vaccination>> getVaccinationsByDateRange(
+    public ResponseEntity<?> getVaccinationsByDateRange(
             @RequestParam LocalDate startDate,
-            @RequestParam LocalDate endDate) {
+            @RequestParam LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getVaccinationsByDateRange(startDate, endDate, cursor, size));
+        }
         List<Vaccination> vaccinations = vaccinationService.getVaccinationsByDateRange(startDate, endDate);
         return ResponseEntity.ok(vaccinations);
     }
 
+    // Stream vaccinations by date range as NDJSON, one record per line, read from a cursor
+    @GetMapping(value = "/date-range", produces = NdjsonStreams.MEDIA_TYPE)
+    @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamVaccinationsByDateRange(
+            @RequestParam LocalDate startDate,
+            @RequestParam LocalDate endDate) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NdjsonStreams.MEDIA_TYPE))
+                .body(NdjsonStreams.body(objectMapper,
+                        () -> recordExportService.streamVaccinationsByDateRange(startDate, endDate)));
+    }
+
     // Get upcoming vaccinations (due within next 30 days)
     @GetMapping("/upcoming")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Vaccination>> getUpcomingVaccinations() {
+    public ResponseEntity<?> getUpcomingVaccinations(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getUpcomingVaccinations(cursor, size));
+        }
         List<Vaccination> vaccinations = vaccinationService.getUpcomingVaccinations();
         return ResponseEntity.ok(vaccinations);
     }
@@ -125,7 +250,11 @@ public class VaccinationController {
     // Get overdue vaccinations
     @GetMapping("/overdue")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<List<Vaccination>> getOverdueVaccinations() {
+    public ResponseEntity<?> getOverdueVaccinations(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getOverdueVaccinations(cursor, size));
+        }
         List<Vaccination> vaccinations = vaccinationService.getOverdueVaccinations();
         return ResponseEntity.ok(vaccinations);
     }
@@ -133,13 +262,13 @@ public class VaccinationController {
     // Get vaccination history for a specific pet
     @GetMapping("/pet/{petId}/history")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<?> getVaccinationHistory(@PathVariable Long petId,
+    public ResponseEntity<?> getVaccinationHistory(@PathVariable String petId,
                                                  Authentication authentication) {
         try {
             // Check if owner is accessing their own pet's vaccination history
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!vaccinationService.isPetOwnedByUser(petId, authentication.getName())) {
+                if (!petOwnershipIndex.isPetOwnedBy(petId, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only view your own pet's vaccination history");
                 }
@@ -203,23 +332,23 @@ public class VaccinationController {
         }
     }
 
-    // Get vaccination statistics
+    // Get vaccination statistics (one aggregation per cache interval, shared by all callers)
     @GetMapping("/stats")
     @PreAuthorize("hasRole('VET') or hasRole('ADMIN')")
     public ResponseEntity<?> getVaccinationStatistics() {
         try {
-            return ResponseEntity.ok(vaccinationService.getVaccinationStatistics());
+            return ResponseEntity.ok(statisticsService.getVaccinationStatistics());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching vaccination statistics");
         }
     }
 
-    // Get vaccination reminders for a specific owner
+    // Get vaccination reminders for a specific owner (one query for all of their pets)
     @GetMapping("/reminders/my-pets")
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<?> getMyVaccinationReminders(Authentication authentication) {
         try {
-            List<Vaccination> reminders = vaccinationService.getVaccinationRemindersByOwner(authentication.getName());
+            List<Vaccination> reminders = vaccinationReminderService.getRemindersByOwner(authentication.getName());
             return ResponseEntity.ok(reminders);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error fetching vaccination reminders: " + e.getMessage());
@@ -229,13 +358,13 @@ public class VaccinationController {
     // Get vaccination certificate
     @GetMapping("/{id}/certificate")
     @PreAuthorize("hasRole('OWNER') or hasRole('VET') or hasRole('ADMIN')")
-    public ResponseEntity<?> getVaccinationCertificate(@PathVariable Long id,
+    public ResponseEntity<?> getVaccinationCertificate(@PathVariable String id,
                                                       Authentication authentication) {
         try {
             // Check if owner is accessing their own pet's vaccination certificate
             if (authentication.getAuthorities().stream()
                     .anyMatch(a -> a.getAuthority().equals("ROLE_OWNER"))) {
-                if (!vaccinationService.isVaccinationOwnedByUser(id, authentication.getName())) {
+                if (!petOwnershipIndex.isVaccinationOwnedBy(id, authentication.getName())) {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN)
                             .body("Access denied: You can only view your own pet's vaccination certificates");
                 }
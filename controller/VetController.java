@@ -2,14 +2,20 @@ package com.petcare.controller;
 
 import com.petcare.model.Vet;
 import com.petcare.service.VetService;
+import com.petcare.service.PagedQueryService;
+import com.petcare.service.VetAvailabilityService;
+import com.petcare.service.VetDirectory;
+import com.petcare.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,6 +26,15 @@ public class VetController {
     @Autowired
     private VetService vetService;
 
+    @Autowired
+    private PagedQueryService pagedQueryService;
+
+    @Autowired
+    private VetDirectory vetDirectory;
+
+    @Autowired
+    private VetAvailabilityService vetAvailabilityService;
+
     // Create vet profile
     @PostMapping
     @PreAuthorize("hasRole('VET')")
@@ -32,49 +47,110 @@ public class VetController {
         }
     }
 
-    // Get all vets
+    // Get all vets (served from the in-memory directory unless paginated)
     @GetMapping
-    public ResponseEntity<List<Vet>> getAllVets() {
-        List<Vet> vets = vetService.getAllVets();
-        return ResponseEntity.ok(vets);
+    public ResponseEntity<?> getAllVets(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer size,
+                                        WebRequest webRequest) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getAllVets(cursor, size));
+        }
+        List<Vet> vets = vetDirectory.getAllVets();
+        String etag = ETags.weak(ETags.variant("all", webRequest), vets, Vet::getUpdatedAt);
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 written by checkNotModified
+        }
+        return ResponseEntity.ok().eTag(etag).body(vets);
     }
 
     // Get vet by ID
     @GetMapping("/{id}")
-    public ResponseEntity<?> getVetById(@PathVariable String id) {
+    public ResponseEntity<?> getVetById(@PathVariable String id, WebRequest webRequest) {
+        Vet vet = vetDirectory.getVetById(id).orElse(null);
+        if (vet == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (vet.getUpdatedAt() != null && webRequest.checkNotModified(
+                ETags.strong(vet.getId(), vet.getUpdatedAt(), webRequest),
+                ETags.lastModified(vet.getUpdatedAt()))) {
+            return null; // 304 written by checkNotModified
+        }
+        return ETags.ok(vet.getId(), vet.getUpdatedAt(), webRequest).body(vet);
+    }
+
+    // Get a vet's open slots within working hours (e.g. ?from=2025-03-03T00:00&to=2025-03-08T00:00)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<?> getVetAvailability(@PathVariable String id,
+                                                @RequestParam LocalDateTime from,
+                                                @RequestParam LocalDateTime to,
+                                                @RequestParam(defaultValue = "30") int minMinutes) {
+        if (vetDirectory.getVetById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
         try {
-            Vet vet = vetService.getVetById(id);
-            return ResponseEntity.ok(vet);
+            return ResponseEntity.ok(vetAvailabilityService.getAvailability(id, from, to, minMinutes));
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            return ResponseEntity.badRequest().body("Error fetching vet availability: " + e.getMessage());
         }
     }
 
     // Get vet by user ID
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getVetByUserId(@PathVariable String userId) {
-        try {
-            Vet vet = vetService.getVetByUserId(userId);
-            return ResponseEntity.ok(vet);
-        } catch (Exception e) {
-            return ResponseEntity.notFound().build();
-        }
+        return vetDirectory.getVetByUserId(userId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     // Get vets by specialization
     @GetMapping("/specialization/{specialization}")
-    public ResponseEntity<List<Vet>> getVetsBySpecialization(@PathVariable String specialization) {
-        List<Vet> vets = vetService.getVetsBySpecialization(specialization);
+    public ResponseEntity<?> getVetsBySpecialization(@PathVariable String specialization,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getVetsBySpecialization(specialization, cursor, size));
+        }
+        List<Vet> vets = vetDirectory.getVetsBySpecialization(specialization);
         return ResponseEntity.ok(vets);
     }
 
     // Get vets by clinic name
     @GetMapping("/clinic/{clinicName}")
-    public ResponseEntity<List<Vet>> getVetsByClinicName(@PathVariable String clinicName) {
-        List<Vet> vets = vetService.getVetsByClinicName(clinicName);
+    public ResponseEntity<?> getVetsByClinicName(@PathVariable String clinicName,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size) {
+        if (cursor != null || size != null) {
+            return ResponseEntity.ok(pagedQueryService.getVetsByClinicName(clinicName, cursor, size));
+        }
+        List<Vet> vets = vetDirectory.getVetsByClinicName(clinicName);
         return ResponseEntity.ok(vets);
     }
 
+    // Reload the in-memory vet directory from the database
+    @PostMapping("/directory/reload")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> reloadVetDirectory() {
+        try {
+            int loaded = vetDirectory.reload();
+            return ResponseEntity.ok().body("Vet directory reloaded with " + loaded + " vets");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error reloading vet directory: " + e.getMessage());
+        }
+    }
+
+    // Compare the in-memory vet directory with the database (reloads it when they differ)
+    @GetMapping("/directory/consistency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> checkVetDirectory() {
+        try {
+            return ResponseEntity.ok(vetDirectory.checkConsistency());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error checking vet directory: " + e.getMessage());
+        }
+    }
+
     // Search vets
     @GetMapping("/search")
     public ResponseEntity<List<Vet>> searchVets(@RequestParam String searchTerm) {
@@ -8,10 +8,10 @@ import java.time.LocalDateTime;
 public class AppointmentDTO {
     
     @NotNull(message = "Pet ID is required")
-    private Long petId;
+    private String petId;
     
     @NotNull(message = "Vet ID is required")
-    private Long vetId;
+    private String vetId;
     
     @NotNull(message = "Appointment date and time is required")
     @Future(message = "Appointment date must be in the future")
@@ -32,7 +32,7 @@ public class AppointmentDTO {
     public AppointmentDTO() {}
     
     // Constructor
-    public AppointmentDTO(Long petId, Long vetId, LocalDateTime appointmentDateTime, String reasonForVisit) {
+    public AppointmentDTO(String petId, String vetId, LocalDateTime appointmentDateTime, String reasonForVisit) {
         this.petId = petId;
         this.vetId = vetId;
         this.appointmentDateTime = appointmentDateTime;
@@ -40,19 +40,19 @@ public class AppointmentDTO {
     }
     
     // Getters and Setters
-    public Long getPetId() {
+    public String getPetId() {
         return petId;
     }
     
-    public void setPetId(Long petId) {
+    public void setPetId(String petId) {
         this.petId = petId;
     }
     
-    public Long getVetId() {
+    public String getVetId() {
         return vetId;
     }
     
-    public void setVetId(Long vetId) {
+    public void setVetId(String vetId) {
         this.vetId = vetId;
     }
     
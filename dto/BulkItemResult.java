@@ -0,0 +1,61 @@
+package com.petcare.dto;
+
+public class BulkItemResult {
+    private int index; // position of the item in the request
+    private String status; // CREATED, REJECTED (failed validation) or FAILED (rejected by the database)
+    private String id;
+    private String error;
+
+    public BulkItemResult() {}
+
+    public BulkItemResult(int index, String status, String id, String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public static BulkItemResult created(int index, String id) {
+        return new BulkItemResult(index, "CREATED", id, null);
+    }
+
+    public static BulkItemResult rejected(int index, String error) {
+        return new BulkItemResult(index, "REJECTED", null, error);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, "FAILED", null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
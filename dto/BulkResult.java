@@ -0,0 +1,41 @@
+package com.petcare.dto;
+
+import java.util.List;
+
+public class BulkResult {
+    private int created;
+    private int failed;
+    private List<BulkItemResult> items;
+
+    public BulkResult() {}
+
+    public BulkResult(List<BulkItemResult> items) {
+        this.items = items;
+        this.created = (int) items.stream().filter(item -> "CREATED".equals(item.getStatus())).count();
+        this.failed = items.size() - created;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkItemResult> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BulkItemResult> items) {
+        this.items = items;
+    }
+}
@@ -0,0 +1,41 @@
+package com.petcare.dto;
+
+import java.util.List;
+
+public class CursorPage<T> {
+    private List<T> items;
+    private String next; // opaque cursor for the following page, null on the last page
+    private int size;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String next, int size) {
+        this.items = items;
+        this.next = next;
+        this.size = size;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+
+    public void setNext(String next) {
+        this.next = next;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+}
@@ -0,0 +1,74 @@
+package com.petcare.dto;
+
+public class ImportReport {
+    private String importId;
+    private String kind; // pets or medical-history
+    private long read;
+    private long imported;
+    private long failed;
+    private String errorFile; // sidecar with one NDJSON error per failed line, null when nothing failed
+    private String error; // what stopped the import early, null when the whole input was read
+
+    public ImportReport() {}
+
+    public ImportReport(String importId, String kind) {
+        this.importId = importId;
+        this.kind = kind;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    public long getRead() {
+        return read;
+    }
+
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public String getErrorFile() {
+        return errorFile;
+    }
+
+    public void setErrorFile(String errorFile) {
+        this.errorFile = errorFile;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
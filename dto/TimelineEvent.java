@@ -0,0 +1,51 @@
+package com.petcare.dto;
+
+import java.time.LocalDateTime;
+
+public class TimelineEvent {
+    private String type; // APPOINTMENT, VACCINATION or MEDICAL_HISTORY
+    private String id;
+    private LocalDateTime occurredAt; // dates without a time of day are placed at midnight
+    private Object data;
+
+    public TimelineEvent() {}
+
+    public TimelineEvent(String type, String id, LocalDateTime occurredAt, Object data) {
+        this.type = type;
+        this.id = id;
+        this.occurredAt = occurredAt;
+        this.data = data;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    public void setData(Object data) {
+        this.data = data;
+    }
+}
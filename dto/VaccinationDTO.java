@@ -8,10 +8,10 @@ import java.time.LocalDate;
 public class VaccinationDTO {
     
     @NotNull(message = "Pet ID is required")
-    private Long petId;
+    private String petId;
     
     @NotNull(message = "Vet ID is required")
-    private Long vetId;
+    private String vetId;
     
     @NotBlank(message = "Vaccine type is required")
     private String vaccineType;
@@ -38,7 +38,7 @@ public class VaccinationDTO {
     public VaccinationDTO() {}
     
     // Constructor
-    public VaccinationDTO(Long petId, Long vetId, String vaccineType, LocalDate scheduledDate) {
+    public VaccinationDTO(String petId, String vetId, String vaccineType, LocalDate scheduledDate) {
         this.petId = petId;
         this.vetId = vetId;
         this.vaccineType = vaccineType;
@@ -46,19 +46,19 @@ public class VaccinationDTO {
     }
     
     // Getters and Setters
-    public Long getPetId() {
+    public String getPetId() {
         return petId;
     }
     
-    public void setPetId(Long petId) {
+    public void setPetId(String petId) {
         this.petId = petId;
     }
     
-    public Long getVetId() {
+    public String getVetId() {
         return vetId;
     }
     
-    public void setVetId(Long vetId) {
+    public void setVetId(String vetId) {
         this.vetId = vetId;
     }
     
@@ -1,6 +1,7 @@
 package com.petcare.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -25,6 +26,7 @@ public class Appointment {
     private Priority priority = Priority.NORMAL;
     
     private LocalDateTime createdAt = LocalDateTime.now();
+    @LastModifiedDate
     private LocalDateTime updatedAt = LocalDateTime.now();
 
     public enum AppointmentStatus {
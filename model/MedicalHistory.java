@@ -1,6 +1,7 @@
 package com.petcare.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -32,6 +33,7 @@ public class MedicalHistory {
     private List<String> attachments; // File paths/URLs
     
     private LocalDateTime createdAt = LocalDateTime.now();
+    @LastModifiedDate
     private LocalDateTime updatedAt = LocalDateTime.now();
 
     // Constructors
@@ -1,6 +1,7 @@
 package com.petcare.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 
@@ -29,6 +30,7 @@ public class Pet {
     private String specialNotes;
     
     private LocalDateTime createdAt = LocalDateTime.now();
+    @LastModifiedDate
     private LocalDateTime updatedAt = LocalDateTime.now();
 
     // Constructors, getters, and setters
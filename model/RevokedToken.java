@@ -0,0 +1,62 @@
+package com.petcare.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    @Id
+    private String id;
+
+    private String tokenId; // jti of a single revoked token, null for user-wide revocations
+    private String username;
+
+    private Instant notBefore; // tokens for username issued before this are revoked
+
+    @Indexed(expireAfter = "0s")
+    private Instant expiresAt; // once passed, every affected token has expired anyway
+
+    @Indexed
+    private Instant revokedAt = Instant.now();
+
+    // Constructors
+    public RevokedToken() {}
+
+    public static RevokedToken forToken(String tokenId, String username, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.tokenId = tokenId;
+        revokedToken.username = username;
+        revokedToken.expiresAt = expiresAt;
+        return revokedToken;
+    }
+
+    public static RevokedToken forUser(String username, Instant notBefore, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.username = username;
+        revokedToken.notBefore = notBefore;
+        revokedToken.expiresAt = expiresAt;
+        return revokedToken;
+    }
+
+    // All getters and setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getTokenId() { return tokenId; }
+    public void setTokenId(String tokenId) { this.tokenId = tokenId; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public Instant getNotBefore() { return notBefore; }
+    public void setNotBefore(Instant notBefore) { this.notBefore = notBefore; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(Instant revokedAt) { this.revokedAt = revokedAt; }
+}
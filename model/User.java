@@ -1,6 +1,7 @@
 package com.petcare.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
@@ -23,6 +24,7 @@ public class User {
     
     private String firstName;
     private String lastName;
+    @Indexed(unique = true, sparse = true)
     private String phoneNumber;
     private String address;
     
@@ -30,6 +32,7 @@ public class User {
     private boolean active = true;
     
     private LocalDateTime createdAt = LocalDateTime.now();
+    @LastModifiedDate
     private LocalDateTime updatedAt = LocalDateTime.now();
     private LocalDateTime lastLogin;
 
@@ -1,6 +1,7 @@
 package com.petcare.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -33,6 +34,7 @@ public class Vaccination {
     private VaccinationStatus status = VaccinationStatus.SCHEDULED;
     
     private LocalDateTime createdAt = LocalDateTime.now();
+    @LastModifiedDate
     private LocalDateTime updatedAt = LocalDateTime.now();
 
     // Enums for lifecycle
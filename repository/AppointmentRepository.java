@@ -14,12 +14,21 @@ public interface AppointmentRepository extends MongoRepository<Appointment, Stri
     // Find appointments by pet ID
     List<Appointment> findByPetId(String petId);
     
+    // Find appointment summaries by pet ID
+    List<AppointmentSummary> findSummaryByPetId(String petId);
+    
     // Find appointments by owner ID
     List<Appointment> findByOwnerId(String ownerId);
     
+    // Find appointment summaries by owner ID
+    List<AppointmentSummary> findSummaryByOwnerId(String ownerId);
+    
     // Find appointments by vet ID
     List<Appointment> findByVetId(String vetId);
     
+    // Find appointment summaries by vet ID
+    List<AppointmentSummary> findSummaryByVetId(String vetId);
+    
     // Find appointments by status
     List<Appointment> findByStatus(Appointment.AppointmentStatus status);
     
@@ -0,0 +1,18 @@
+package com.petcare.repository;
+
+import com.petcare.model.Appointment;
+
+import java.time.LocalDateTime;
+
+// Closed projection of Appointment for list screens, without reason and notes
+public interface AppointmentSummary {
+    String getId();
+    String getPetId();
+    String getOwnerId();
+    String getVetId();
+    LocalDateTime getAppointmentDateTime();
+    int getDurationMinutes();
+    String getAppointmentType();
+    Appointment.AppointmentStatus getStatus();
+    Appointment.Priority getPriority();
+}
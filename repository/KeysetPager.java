@@ -0,0 +1,169 @@
+package com.petcare.repository;
+
+import com.petcare.dto.CursorPage;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+// Keyset (seek) pagination over any collection. A page is the filter plus
+// "(sortField, _id) > last seen", sorted by (sortField, _id) and limited to
+// size + 1, so with a matching index every page costs the same as the first.
+// Documents whose sort field is null or missing (e.g. breed, clinicName,
+// nextDueDate) come first, as Mongo sorts null before any value.
+@Component
+public class KeysetPager {
+
+    private static final String NULL_TAG = "x";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${app.pagination.defaultPageSize:50}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.maxPageSize:500}")
+    private int maxPageSize;
+
+    // Page ordered by _id only
+    public <T> CursorPage<T> page(Class<T> type, Criteria filter, String cursor, Integer size) {
+        return page(type, filter, null, null, cursor, size);
+    }
+
+    public <T> CursorPage<T> page(Class<T> type, Criteria filter, String sortField, String cursor, Integer size) {
+        return page(type, filter, sortField, null, cursor, size);
+    }
+
+    public <T> CursorPage<T> page(Class<T> type, Criteria filter, String sortField, Collation collation,
+                                  String cursor, Integer size) {
+        return page(type, type, filter, sortField, collation, cursor, size);
+    }
+
+    // Page returned as a projection of the collection's type (an interface projection
+    // only reads its own fields). The view must expose getId() and the sort field.
+    public <R> CursorPage<R> page(Class<?> type, Class<R> view, Criteria filter, String sortField,
+                                  Collation collation, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+
+        Criteria criteria = filter;
+        if (cursor != null && !cursor.isEmpty()) {
+            criteria = new Criteria().andOperator(filter, after(sortField, decode(cursor)));
+        }
+
+        Query query = new Query(criteria).limit(pageSize + 1);
+        query.with(sortField == null ? Sort.by("id") : Sort.by(sortField, "id"));
+        if (collation != null) {
+            query.collation(collation);
+        }
+
+        List<R> items = mongoTemplate.query(type).as(view).matching(query).all();
+        if (items.size() <= pageSize) {
+            return new CursorPage<>(items, null, pageSize);
+        }
+
+        items = new ArrayList<>(items.subList(0, pageSize));
+        return new CursorPage<>(items, encode(items.get(pageSize - 1), sortField), pageSize);
+    }
+
+    private static Criteria after(String sortField, Position position) {
+        if (sortField == null) {
+            return Criteria.where("id").gt(position.id);
+        }
+        if (position.sortNull) {
+            // The rest of the null run, then every document with a value
+            return new Criteria().orOperator(
+                    new Criteria().andOperator(
+                            Criteria.where(sortField).is(null),
+                            Criteria.where("id").gt(position.id)),
+                    Criteria.where(sortField).ne(null));
+        }
+        // $gt skips nulls, which sort before every value
+        return new Criteria().orOperator(
+                Criteria.where(sortField).gt(position.sortValue),
+                new Criteria().andOperator(
+                        Criteria.where(sortField).is(position.sortValue),
+                        Criteria.where("id").gt(position.id)));
+    }
+
+    // Cursor format (base64url): "<id>|<type tag><sort value>", or "<id>|x" for a null sort value
+    private static String encode(Object last, String sortField) {
+        BeanWrapper accessor = PropertyAccessorFactory.forBeanPropertyAccess(last);
+        Object id = accessor.getPropertyValue("id");
+
+        String value = "";
+        if (sortField != null) {
+            value = tag(accessor.getPropertyValue(sortField));
+        }
+        String raw = id + "|" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            String id = raw.substring(0, separator);
+            String value = raw.substring(separator + 1);
+            if (NULL_TAG.equals(value)) {
+                return new Position(id, null, true);
+            }
+            return new Position(id, value.isEmpty() ? null : untag(value), false);
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static String tag(Object value) {
+        if (value instanceof LocalDateTime dateTime) {
+            return "t" + dateTime;
+        }
+        if (value instanceof LocalDate date) {
+            return "d" + date;
+        }
+        if (value instanceof Number number) {
+            return "n" + number.longValue();
+        }
+        if (value == null) {
+            return NULL_TAG;
+        }
+        return "s" + value;
+    }
+
+    private static Object untag(String value) {
+        String body = value.substring(1);
+        return switch (value.charAt(0)) {
+            case 't' -> LocalDateTime.parse(body);
+            case 'd' -> LocalDate.parse(body);
+            case 'n' -> Long.parseLong(body);
+            case 's' -> body;
+            default -> throw new IllegalArgumentException("Unknown cursor value type");
+        };
+    }
+
+    private static final class Position {
+        private final String id;
+        private final Object sortValue;
+        private final boolean sortNull;
+
+        private Position(String id, Object sortValue, boolean sortNull) {
+            this.id = id;
+            this.sortValue = sortValue;
+            this.sortNull = sortNull;
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.petcare.repository;
 
 import com.petcare.model.MedicalHistory;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicalHistoryRepository extends MongoRepository<MedicalHistory, String> {
@@ -14,13 +17,24 @@ public interface MedicalHistoryRepository extends MongoRepository<MedicalHistory
     // Find medical history by pet ID
     List<MedicalHistory> findByPetId(String petId);
     
+    // Find medical history summaries by pet ID
+    List<MedicalHistorySummary> findSummaryByPetId(String petId);
+    
     // Find medical history by vet ID
     List<MedicalHistory> findByVetId(String vetId);
     
+    // Find medical history summaries by vet ID
+    List<MedicalHistorySummary> findSummaryByVetId(String vetId);
+    
     // Find medical history by date range
     @Query("{'visitDate': {'$gte': ?0, '$lte': ?1}}")
     List<MedicalHistory> findByVisitDateBetween(LocalDate startDate, LocalDate endDate);
     
+    // Stream medical history by date range from a cursor (caller must close the stream)
+    @Meta(cursorBatchSize = 500)
+    @Query(value = "{'visitDate': {'$gte': ?0, '$lte': ?1}}", sort = "{'visitDate': 1, '_id': 1}")
+    Stream<MedicalHistory> streamByVisitDateBetween(LocalDate startDate, LocalDate endDate);
+    
     // Find medical history by pet and date range
     @Query("{'petId': ?0, 'visitDate': {'$gte': ?1, '$lte': ?2}}")
     List<MedicalHistory> findByPetIdAndVisitDateBetween(String petId, LocalDate startDate, LocalDate endDate);
@@ -33,7 +47,9 @@ public interface MedicalHistoryRepository extends MongoRepository<MedicalHistory
     @Query("{'visitReason': {'$regex': ?0, '$options': 'i'}}")
     List<MedicalHistory> findByVisitReasonContaining(String visitReason);
     
-    // Find recent medical history for a pet
-    @Query("{'petId': ?0}")
+    // Find medical history for a pet, newest first (derived sort, served by {petId, visitDate: -1})
     List<MedicalHistory> findByPetIdOrderByVisitDateDesc(String petId);
+    
+    // Find the most recent medical history for a pet (top-N pushed down to Mongo)
+    List<MedicalHistory> findByPetIdOrderByVisitDateDesc(String petId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.petcare.repository;
+
+import java.time.LocalDate;
+
+// Closed projection of MedicalHistory for list screens. Treatment, prescription,
+// symptoms, notes, vitals and attachments are only returned by the full view.
+public interface MedicalHistorySummary {
+    String getId();
+    String getPetId();
+    String getVetId();
+    LocalDate getVisitDate();
+    String getVisitReason();
+    String getDiagnosis();
+}
@@ -14,16 +14,36 @@ public interface PetRepository extends MongoRepository<Pet, String> {
     // Find pets by owner ID
     List<Pet> findByOwnerId(String ownerId);
     
+    // Find pet summaries by owner ID
+    List<PetSummary> findSummaryByOwnerId(String ownerId);
+    
+    // Find only the ids of an owner's pets (covered by the {ownerId, _id} index)
+    @Query(value = "{'ownerId': ?0}", fields = "{'_id': 1}")
+    List<Pet> findIdsByOwnerId(String ownerId);
+    
     // Find pet by name and owner ID
     Optional<Pet> findByNameAndOwnerId(String name, String ownerId);
     
     // Find pets by species
+    // Matched with MongoConfig's case-insensitive collated index; a derived IgnoreCase
+    // query is sent as an /^x$/i regex, which scans every key of the index
+    @Query(value = "{'species': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Pet> findBySpeciesIgnoreCase(String species);
     
+    // Find pet summaries by species
+    @Query(value = "{'species': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
+    List<PetSummary> findSummaryBySpeciesIgnoreCase(String species);
+    
     // Find pets by breed
+    @Query(value = "{'breed': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Pet> findByBreedIgnoreCase(String breed);
     
+    // Find pet summaries by breed
+    @Query(value = "{'breed': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
+    List<PetSummary> findSummaryByBreedIgnoreCase(String breed);
+    
     // Find pets by species and breed
+    @Query(value = "{'species': ?0, 'breed': ?1}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Pet> findBySpeciesIgnoreCaseAndBreedIgnoreCase(String species, String breed);
     
     // Find pets by age range
@@ -0,0 +1,13 @@
+package com.petcare.repository;
+
+// Closed projection of Pet for list screens. Only these fields are read from Mongo;
+// notes, microchip and physical details are left out.
+public interface PetSummary {
+    String getId();
+    String getName();
+    String getSpecies();
+    String getBreed();
+    int getAge();
+    String getGender();
+    String getOwnerId();
+}
@@ -0,0 +1,18 @@
+package com.petcare.repository;
+
+import com.petcare.model.RevokedToken;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends MongoRepository<RevokedToken, String> {
+
+    // Find revocations that still affect unexpired tokens
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+
+    // Find revocations recorded since the last sync (e.g. by other instances)
+    List<RevokedToken> findByRevokedAtAfterAndExpiresAtAfter(Instant since, Instant now);
+}
@@ -25,6 +25,9 @@ public interface UserRepository extends MongoRepository<User, String> {
     List<User> findByRole(String role);
     
     // Find users by first name and last name
+    // Matched with MongoConfig's case-insensitive collated index; a derived IgnoreCase
+    // query is sent as an /^x$/i regex, which scans every key of the index
+    @Query(value = "{'firstName': ?0, 'lastName': ?1}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<User> findByFirstNameIgnoreCaseAndLastNameIgnoreCase(String firstName, String lastName);
     
     // Find users by phone number
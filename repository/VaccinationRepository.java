@@ -1,12 +1,15 @@
 package com.petcare.repository;
 
 import com.petcare.model.Vaccination;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface VaccinationRepository extends MongoRepository<Vaccination, String> {
@@ -21,15 +24,24 @@ public interface VaccinationRepository extends MongoRepository<Vaccination, Stri
     List<Vaccination> findByStatus(Vaccination.VaccinationStatus status);
     
     // Find vaccinations by vaccine name
+    // Matched with MongoConfig's case-insensitive collated index; a derived IgnoreCase
+    // query is sent as an /^x$/i regex, which scans every key of the index
+    @Query(value = "{'vaccineName': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Vaccination> findByVaccineNameIgnoreCase(String vaccineName);
     
     // Find vaccinations by vaccine type
+    @Query(value = "{'vaccineType': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Vaccination> findByVaccineTypeIgnoreCase(String vaccineType);
     
     // Find vaccinations by date range
     @Query("{'administeredDate': {'$gte': ?0, '$lte': ?1}}")
     List<Vaccination> findByAdministeredDateBetween(LocalDate startDate, LocalDate endDate);
     
+    // Stream vaccinations by date range from a cursor (caller must close the stream)
+    @Meta(cursorBatchSize = 500)
+    @Query(value = "{'administeredDate': {'$gte': ?0, '$lte': ?1}}", sort = "{'administeredDate': 1, '_id': 1}")
+    Stream<Vaccination> streamByAdministeredDateBetween(LocalDate startDate, LocalDate endDate);
+    
     // Find vaccinations by scheduled date range
     @Query("{'scheduledDate': {'$gte': ?0, '$lte': ?1}}")
     List<Vaccination> findByScheduledDateBetween(LocalDate startDate, LocalDate endDate);
@@ -42,7 +54,12 @@ public interface VaccinationRepository extends MongoRepository<Vaccination, Stri
     @Query("{'nextDueDate': {'$lt': ?0}, 'status': 'SCHEDULED'}")
     List<Vaccination> findOverdueVaccinations(LocalDate currentDate);
     
+    // Find vaccinations of several pets due on or before a date, soonest first
+    @Query(value = "{'petId': {'$in': ?0}, 'nextDueDate': {'$lte': ?1}}", sort = "{'nextDueDate': 1}")
+    List<Vaccination> findDueByPetIdIn(Collection<String> petIds, LocalDate dueBefore);
+    
     // Find vaccinations by pet and vaccine name
+    @Query(value = "{'petId': ?0, 'vaccineName': ?1}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Vaccination> findByPetIdAndVaccineNameIgnoreCase(String petId, String vaccineName);
     
     // Find vaccinations by pet ID ordered by scheduled date descending
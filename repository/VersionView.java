@@ -0,0 +1,10 @@
+package com.petcare.repository;
+
+import java.time.LocalDateTime;
+
+// Closed projection of any model down to its id and updatedAt, read to answer
+// conditional GETs without loading the document.
+public interface VersionView {
+    String getId();
+    LocalDateTime getUpdatedAt();
+}
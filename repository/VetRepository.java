@@ -15,9 +15,13 @@ public interface VetRepository extends MongoRepository<Vet, String> {
     Optional<Vet> findByUserId(String userId);
     
     // Find vets by specialization
+    // Matched with MongoConfig's case-insensitive collated index; a derived IgnoreCase
+    // query is sent as an /^x$/i regex, which scans every key of the index
+    @Query(value = "{'specialization': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Vet> findBySpecializationIgnoreCase(String specialization);
     
     // Find vets by clinic name
+    @Query(value = "{'clinicName': ?0}", collation = "{ 'locale' : 'en', 'strength' : 2 }")
     List<Vet> findByClinicNameIgnoreCase(String clinicName);
     
     // Find vets by license number
@@ -0,0 +1,18 @@
+package com.petcare.repository.reactive;
+
+import com.petcare.model.Appointment;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+
+// Non-blocking counterpart of AppointmentRepository for the reactive read endpoints
+@Repository
+public interface ReactiveAppointmentRepository extends ReactiveMongoRepository<Appointment, String> {
+    
+    // Find appointments by date range
+    @Query("{'appointmentDateTime': {'$gte': ?0, '$lte': ?1}}")
+    Flux<Appointment> findByAppointmentDateTimeBetween(LocalDateTime startDate, LocalDateTime endDate);
+}
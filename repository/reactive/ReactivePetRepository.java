@@ -0,0 +1,10 @@
+package com.petcare.repository.reactive;
+
+import com.petcare.model.Pet;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+// Non-blocking counterpart of PetRepository for the reactive read endpoints
+@Repository
+public interface ReactivePetRepository extends ReactiveMongoRepository<Pet, String> {
+}
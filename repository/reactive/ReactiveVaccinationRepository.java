@@ -0,0 +1,22 @@
+package com.petcare.repository.reactive;
+
+import com.petcare.model.Vaccination;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+// Non-blocking counterpart of VaccinationRepository for the reactive read endpoints
+@Repository
+public interface ReactiveVaccinationRepository extends ReactiveMongoRepository<Vaccination, String> {
+    
+    // Find upcoming vaccinations
+    @Query("{'nextDueDate': {'$gte': ?0, '$lte': ?1}}")
+    Flux<Vaccination> findUpcomingVaccinations(LocalDate startDate, LocalDate endDate);
+    
+    // Find overdue vaccinations
+    @Query("{'nextDueDate': {'$lt': ?0}, 'status': 'SCHEDULED'}")
+    Flux<Vaccination> findOverdueVaccinations(LocalDate currentDate);
+}
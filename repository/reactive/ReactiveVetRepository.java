@@ -0,0 +1,10 @@
+package com.petcare.repository.reactive;
+
+import com.petcare.model.Vet;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+// Non-blocking counterpart of VetRepository for the reactive read endpoints
+@Repository
+public interface ReactiveVetRepository extends ReactiveMongoRepository<Vet, String> {
+}
@@ -0,0 +1,106 @@
+package com.petcare.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt encoder whose cost is chosen at startup by benchmarking this machine, or
+// fixed by configuration so every instance of a deployment uses the same cost.
+// upgradeEncoding() reports hashes below the chosen cost, so DaoAuthenticationProvider
+// re-hashes them after a successful login. Hashes at a higher cost are kept: with
+// calibrated costs, instances on different hardware disagree, and downgrading as well
+// would re-hash a password back and forth between them on every login.
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private final BCryptPasswordEncoder delegate;
+    private final int strength;
+    private final long hashTimeNanos;
+
+    private AdaptiveBCryptPasswordEncoder(int strength, long hashTimeNanos) {
+        this.delegate = new BCryptPasswordEncoder(strength);
+        this.strength = strength;
+        this.hashTimeNanos = hashTimeNanos;
+    }
+
+    // Pick the highest cost in [minStrength, maxStrength] whose hash time stays under the target.
+    // Each step doubles the work, so one measurement at the lowest cost predicts the rest;
+    // the chosen cost is then measured for real and stepped down if the prediction was optimistic.
+    public static AdaptiveBCryptPasswordEncoder calibrate(int minStrength, int maxStrength, long targetHashMs) {
+        long targetNanos = targetHashMs * 1_000_000L;
+
+        measure(minStrength); // warm-up
+        long baseNanos = measure(minStrength);
+
+        int strength = minStrength;
+        long projected = baseNanos;
+        while (strength < maxStrength && projected * 2 <= targetNanos) {
+            strength++;
+            projected *= 2;
+        }
+
+        long measured = strength == minStrength ? baseNanos : measure(strength);
+        while (strength > minStrength && measured > targetNanos) {
+            strength--;
+            measured = measure(strength);
+        }
+
+        logger.info("BCrypt calibrated to cost {} ({} ms per hash, target {} ms)",
+                strength, measured / 1_000_000, targetHashMs);
+        return new AdaptiveBCryptPasswordEncoder(strength, measured);
+    }
+
+    // Fixed cost shared by every instance; the one measured hash only feeds the gauge
+    public static AdaptiveBCryptPasswordEncoder withStrength(int strength) {
+        measure(strength); // warm-up
+        long measured = measure(strength);
+        logger.info("BCrypt cost fixed at {} ({} ms per hash)", strength, measured / 1_000_000);
+        return new AdaptiveBCryptPasswordEncoder(strength, measured);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return delegate.matches(rawPassword, encodedPassword);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        if (!matcher.find()) {
+            return false;
+        }
+        return Integer.parseInt(matcher.group(1)) < strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    public double getHashTimeMillis() {
+        return hashTimeNanos / 1_000_000.0;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return System.nanoTime() - start;
+    }
+}
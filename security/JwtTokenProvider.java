@@ -2,7 +2,10 @@ package com.petcare.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import com.petcare.model.User;
+import com.petcare.util.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,10 +13,17 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Component
@@ -27,13 +37,36 @@ public class JwtTokenProvider {
     @Value("${app.jwtExpirationInMs:864000000}")
     private long jwtExpirationInMs;
 
+    // Issue time in milliseconds; the standard iat claim only has second precision
+    private static final String ISSUED_AT_MILLIS_CLAIM = "iatMs";
+
+    @Value("${app.jwtCacheMaxSize:10000}")
+    private int jwtCacheMaxSize;
+
+    // Key and parser are immutable and thread-safe, so build them once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Verified claims keyed by a digest of the raw token, expiring at the token's exp
+    private BoundedTtlCache<String, VerifiedToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = new BoundedTtlCache<>(jwtCacheMaxSize);
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        long now = System.currentTimeMillis();
+        Date expiryDate = new Date(now + jwtExpirationInMs);
 
         List<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
@@ -42,63 +75,59 @@ public class JwtTokenProvider {
         return Jwts.builder()
                 .setSubject(userPrincipal.getUsername())
                 .claim("roles", roles)
-                .setIssuedAt(new Date())
+                .setId(UUID.randomUUID().toString())
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .setIssuedAt(new Date(now))
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
     public String generateTokenFromUser(User user) {
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        long now = System.currentTimeMillis();
+        Date expiryDate = new Date(now + jwtExpirationInMs);
 
         return Jwts.builder()
                 .setSubject(user.getUsername())
                 .claim("roles", List.of("ROLE_" + user.getRole().toUpperCase()))
                 .claim("userId", user.getId())
                 .claim("username", user.getUsername())
-                .setIssuedAt(new Date())
+                .setId(UUID.randomUUID().toString())
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .setIssuedAt(new Date(now))
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUsernameFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
-
-    public String getUserIdFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.get("userId").toString();
-    }
-
-    public List<String> getRolesFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verify signature and expiry once and return all claims the request path needs.
+    // Tokens seen before are served from the cache without re-checking the signature.
+    public Optional<VerifiedToken> verifyToken(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
 
-        return (List<String>) claims.get("roles");
-    }
+        String cacheKey = digest(token);
+        VerifiedToken cached = verifiedTokens.get(cacheKey);
+        if (cached != null && !cached.isExpired()) {
+            return Optional.of(cached);
+        }
 
-    public boolean validateToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            Claims claims = parseClaims(token);
+            Object userId = claims.get("userId");
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getId(),
+                    claims.getSubject(),
+                    userId == null ? null : userId.toString(),
+                    getRoles(claims),
+                    getIssuedAt(claims),
+                    claims.getExpiration()
+            );
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(cacheKey, verified, verified.getExpiresAtMillis());
+            }
+            return Optional.of(verified);
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
@@ -110,17 +139,33 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty.");
         }
-        return false;
+        return Optional.empty();
     }
 
-    public Date getExpirationDateFromJWT(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Tokens issued before iatMs was added only carry the second-precision iat
+    private static Date getIssuedAt(Claims claims) {
+        Object issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM);
+        return issuedAtMillis instanceof Number millis ? new Date(millis.longValue()) : claims.getIssuedAt();
+    }
 
-        return claims.getExpiration();
+    public String getUsernameFromJWT(String token) {
+        return parseClaims(token).getSubject();
+    }
+
+    public String getUserIdFromJWT(String token) {
+        return parseClaims(token).get("userId").toString();
+    }
+
+    public List<String> getRolesFromJWT(String token) {
+        return getRoles(parseClaims(token));
+    }
+
+    public boolean validateToken(String authToken) {
+        return verifyToken(authToken).isPresent();
+    }
+
+    public Date getExpirationDateFromJWT(String token) {
+        return parseClaims(token).getExpiration();
     }
 
     public boolean isTokenExpired(String token) {
@@ -131,4 +176,23 @@ public class JwtTokenProvider {
     public long getJwtExpirationInMs() {
         return jwtExpirationInMs;
     }
-}
\ No newline at end of file
+
+    private Claims parseClaims(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getRoles(Claims claims) {
+        return (List<String>) claims.get("roles");
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] hash = sha256.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
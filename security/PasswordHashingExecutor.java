@@ -0,0 +1,106 @@
+package com.petcare.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Bulkhead for password hashing. BCrypt is deliberately CPU-expensive, so login
+// spikes run on this small bounded pool instead of request threads; when the
+// queue is full, submit() fails immediately and the caller answers 503.
+@Component
+public class PasswordHashingExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+
+    private final Timer queueWaitTimer;
+    private final Timer executionTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingExecutor(MeterRegistry meterRegistry,
+                                   @Value("${app.auth.hashingPoolSize:0}") int poolSize,
+                                   @Value("${app.auth.hashingQueueCapacity:64}") int queueCapacity,
+                                   @Value("${app.auth.hashingTimeoutMs:5000}") long timeoutMs) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads(), new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMs = timeoutMs;
+
+        this.queueWaitTimer = Timer.builder("auth.hashing.queue.wait")
+                .description("Time login requests wait for a password hashing thread")
+                .register(meterRegistry);
+        this.executionTimer = Timer.builder("auth.hashing.execution")
+                .description("Time spent authenticating on the password hashing pool")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Login requests rejected because the hashing pool was saturated")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+                .description("Login requests waiting for a password hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing threads currently busy")
+                .register(meterRegistry);
+    }
+
+    // Run the task on the hashing pool. Throws RejectedExecutionException right away
+    // when the pool and its queue are full; the future fails with a TimeoutException
+    // if the task does not finish within the configured timeout. A timed-out task is
+    // cancelled: taken off the queue if it has not started, interrupted if it has.
+    // BCrypt itself does not check for interrupts, so a hash already running still
+    // finishes, but the user lookup and the re-hash save around it stop.
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long enqueuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        FutureTask<Void> work = new FutureTask<>(() -> {
+            queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(executionTimer.record(task));
+            } catch (RuntimeException | Error ex) {
+                result.completeExceptionally(ex);
+            }
+        }, null);
+        try {
+            executor.execute(work);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw ex;
+        }
+        return result.orTimeout(timeoutMs, TimeUnit.MILLISECONDS)
+                .whenComplete((value, ex) -> {
+                    if (ex instanceof TimeoutException) {
+                        work.cancel(true);
+                        executor.remove(work);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package com.petcare.security;
+
+import com.petcare.model.RevokedToken;
+import com.petcare.repository.RevokedTokenRepository;
+import com.petcare.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory view of revoked tokens. Revocations are written through to Mongo and
+// reloaded at startup, so the per-request check never leaves the JVM: a Bloom
+// filter answers "definitely not revoked" for almost every token and only
+// possible hits are confirmed against the concurrent jti map.
+@Component
+public class TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationStore.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.jwtExpirationInMs:864000000}")
+    private long jwtExpirationInMs;
+
+    @Value("${app.revocation.expectedRevocations:100000}")
+    private int expectedRevocations;
+
+    // How far each sync reaches back before the previous one. revokedAt comes from the
+    // clock of the instance that wrote it, and a revocation saved just before a sync
+    // may only become visible after it, so the windows overlap by this much.
+    @Value("${app.revocation.clockSkewMs:5000}")
+    private long clockSkewMillis;
+
+    // jti -> token expiry (epoch millis)
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    // username -> user-wide revocation
+    private final Map<String, UserRevocation> userRevocations = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter tokenIdFilter;
+
+    private volatile Instant lastSync;
+
+    @PostConstruct
+    public void load() {
+        Instant now = Instant.now();
+        List<RevokedToken> revocations = revokedTokenRepository.findByExpiresAtAfter(now);
+        tokenIdFilter = new BloomFilter(Math.max(expectedRevocations, revocations.size() * 2), FALSE_POSITIVE_RATE);
+        revocations.forEach(this::apply);
+        lastSync = now;
+        logger.info("Loaded {} active token revocations", revocations.size());
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        String tokenId = token.getTokenId();
+        if (tokenId != null && tokenIdFilter.mightContain(tokenId) && revokedTokenIds.containsKey(tokenId)) {
+            return true;
+        }
+
+        UserRevocation userRevocation = userRevocations.get(token.getSubject());
+        return userRevocation != null && token.getIssuedAtMillis() <= userRevocation.notBeforeMillis;
+    }
+
+    // Revoke a single token (sign out of this device)
+    public void revokeToken(VerifiedToken token) {
+        RevokedToken revokedToken = RevokedToken.forToken(
+                token.getTokenId(), token.getSubject(), Instant.ofEpochMilli(token.getExpiresAtMillis()));
+        apply(revokedToken);
+        revokedTokenRepository.save(revokedToken);
+    }
+
+    // Revoke every token issued to the user so far (sign out everywhere)
+    public void revokeAllForUser(String username) {
+        // Tokens carry their issue time in milliseconds (iatMs), and one issued in
+        // the same millisecond as the revocation is treated as issued before it
+        long notBeforeMillis = System.currentTimeMillis();
+        RevokedToken revokedToken = RevokedToken.forUser(
+                username,
+                Instant.ofEpochMilli(notBeforeMillis),
+                Instant.ofEpochMilli(notBeforeMillis + jwtExpirationInMs));
+        apply(revokedToken);
+        revokedTokenRepository.save(revokedToken);
+    }
+
+    // Pick up revocations written by other instances; re-applying one seen before is harmless
+    @Scheduled(fixedDelayString = "${app.revocation.syncIntervalMs:30000}")
+    public void syncFromDatabase() {
+        Instant now = Instant.now();
+        revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(lastSync.minusMillis(clockSkewMillis), now)
+                .forEach(this::apply);
+        lastSync = now;
+    }
+
+    // Drop entries whose tokens have expired and rebuild the Bloom filter without them
+    @Scheduled(fixedDelayString = "${app.revocation.pruneIntervalMs:3600000}")
+    public void prune() {
+        long now = System.currentTimeMillis();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+        userRevocations.values().removeIf(revocation -> revocation.expiresAtMillis <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedTokenIds.size() * 2), FALSE_POSITIVE_RATE);
+        revokedTokenIds.keySet().forEach(rebuilt::add);
+        tokenIdFilter = rebuilt;
+        // Second pass catches ids revoked while the first pass was running
+        revokedTokenIds.keySet().forEach(rebuilt::add);
+    }
+
+    private void apply(RevokedToken revokedToken) {
+        long expiresAt = revokedToken.getExpiresAt().toEpochMilli();
+        if (revokedToken.getTokenId() != null) {
+            // Map first, filter second: a filter hit must always be confirmable
+            revokedTokenIds.put(revokedToken.getTokenId(), expiresAt);
+            tokenIdFilter.add(revokedToken.getTokenId());
+        } else if (revokedToken.getNotBefore() != null) {
+            UserRevocation revocation = new UserRevocation(revokedToken.getNotBefore().toEpochMilli(), expiresAt);
+            userRevocations.merge(revokedToken.getUsername(), revocation,
+                    (existing, added) -> existing.notBeforeMillis >= added.notBeforeMillis ? existing : added);
+        }
+    }
+
+    private static final class UserRevocation {
+        private final long notBeforeMillis;
+        private final long expiresAtMillis;
+
+        private UserRevocation(long notBeforeMillis, long expiresAtMillis) {
+            this.notBeforeMillis = notBeforeMillis;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.petcare.security;
+
+import com.petcare.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+// UserDetails backed by the loaded User document, so code holding the
+// Authentication never has to look the user up again
+public class UserPrincipal implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    // Sessions are stateless, so a principal is never actually serialized
+    @SuppressWarnings("serial")
+    private final User user;
+    @SuppressWarnings("serial")
+    private final List<GrantedAuthority> authorities;
+
+    public UserPrincipal(User user) {
+        this.user = user;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole().toUpperCase()));
+    }
+
+    public User getUser() { return user; }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public String getPassword() { return user.getPassword(); }
+
+    @Override
+    public String getUsername() { return user.getUsername(); }
+
+    @Override
+    public boolean isAccountNonExpired() { return true; }
+
+    @Override
+    public boolean isAccountNonLocked() { return true; }
+
+    @Override
+    public boolean isCredentialsNonExpired() { return true; }
+
+    // Deactivated users are refused at sign-in (DisabledException, answered 401)
+    @Override
+    public boolean isEnabled() { return user.isActive(); }
+}
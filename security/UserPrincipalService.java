@@ -0,0 +1,59 @@
+package com.petcare.security;
+
+import com.petcare.model.User;
+import com.petcare.repository.UserRepository;
+import com.petcare.service.UserCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+@Component
+public class UserPrincipalService implements UserDetailsService, UserDetailsPasswordService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    // Load by username or email in a single query and keep the User on the principal
+    @Override
+    public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
+        return userRepository.findByUsernameOrEmail(usernameOrEmail)
+                .map(UserPrincipal::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + usernameOrEmail));
+    }
+
+    // Called after a successful login when the stored hash uses a different BCrypt cost.
+    // Only the password and updatedAt are written, and only while the stored hash is
+    // still the one just verified, so a concurrent role, profile or password change
+    // is never overwritten by the copy loaded at authentication.
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newEncodedPassword) {
+        User user = ((UserPrincipal) userDetails).getUser();
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(where("id").is(user.getId()).and("password").is(user.getPassword()));
+        Update update = new Update().set("password", newEncodedPassword).set("updatedAt", now);
+        if (mongoTemplate.updateFirst(query, update, User.class).getModifiedCount() == 0) {
+            return userDetails;
+        }
+        // updateFirst publishes no save event, so evict the cached copy here
+        userCache.evict(user.getId());
+        user.setPassword(newEncodedPassword);
+        user.setUpdatedAt(now);
+        return new UserPrincipal(user);
+    }
+}
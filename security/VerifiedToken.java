@@ -0,0 +1,52 @@
+package com.petcare.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+// Claims of a JWT whose signature and expiry have already been checked
+public final class VerifiedToken {
+
+    private final String tokenId;
+    private final String subject;
+    private final String userId;
+    private final List<String> roles;
+    private final List<SimpleGrantedAuthority> authorities;
+    private final long issuedAtMillis;
+    private final long expiresAtMillis;
+
+    public VerifiedToken(String tokenId, String subject, String userId, List<String> roles,
+                         Date issuedAt, Date expiration) {
+        this.tokenId = tokenId;
+        this.subject = subject;
+        this.userId = userId;
+        this.roles = roles == null ? Collections.emptyList() : List.copyOf(roles);
+        this.authorities = this.roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .toList();
+        this.issuedAtMillis = issuedAt == null ? 0L : issuedAt.getTime();
+        this.expiresAtMillis = expiration == null ? Long.MAX_VALUE : expiration.getTime();
+    }
+
+    public String getTokenId() { return tokenId; }
+
+    public String getSubject() { return subject; }
+
+    public String getUserId() { return userId; }
+
+    public List<String> getRoles() { return roles; }
+
+    public List<SimpleGrantedAuthority> getAuthorities() { return authorities; }
+
+    public long getIssuedAtMillis() { return issuedAtMillis; }
+
+    public Date getExpiration() { return new Date(expiresAtMillis); }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    public boolean isExpired() {
+        return expiresAtMillis <= System.currentTimeMillis();
+    }
+}
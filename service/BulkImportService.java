@@ -0,0 +1,507 @@
+package com.petcare.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.petcare.dto.ImportReport;
+import com.petcare.dto.PetDTO;
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vet;
+import com.petcare.util.CsvReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Streaming import of pets and medical history from CSV (with a header row) or NDJSON.
+// Records are parsed one at a time and written in batches of app.import.batchSize;
+// the next batch is only read once the previous one has been written, so memory is
+// bounded by one batch whatever the file size. Per batch, owner, pet and vet
+// references are resolved with one $in query each and the valid records are written
+// with one unordered bulk insert. Every rejected line is reported in an NDJSON
+// sidecar file ({"line": n, "error": "..."}). An error that stops the import (a
+// broken upload, an unreadable header, the database going away) is recorded there
+// too, and the partial report is still returned.
+@Service
+public class BulkImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkImportService.class);
+
+    public static final String PETS = "pets";
+    public static final String MEDICAL_HISTORY = "medical-history";
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    // CSV cells holding lists use this separator, e.g. "cough|fever"
+    private static final String LIST_SEPARATOR = "\\|";
+
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${app.import.batchSize:500}")
+    private int batchSize;
+
+    @Value("${app.import.errorDir:${java.io.tmpdir}/petcare-imports}")
+    private String errorDir;
+
+    @Value("${app.import.maxFieldLength:65536}")
+    private int maxFieldLength;
+
+    @Value("${app.import.maxRecordLength:1048576}")
+    private int maxRecordLength;
+
+    // Import whose error sidecar goes to app.import.errorDir/<importId>.errors.ndjson
+    public ImportReport importRecords(String kind, String format, InputStream input) throws IOException {
+        String importId = UUID.randomUUID().toString();
+        return importRecords(kind, format, input, importId, errorFile(importId));
+    }
+
+    public ImportReport importRecords(String kind, String format, InputStream input,
+                                      String importId, Path errorFile) throws IOException {
+        if (!PETS.equals(kind) && !MEDICAL_HISTORY.equals(kind)) {
+            throw new IllegalArgumentException("Unknown import kind: " + kind + " (expected pets or medical-history)");
+        }
+        ImportReport report = new ImportReport(importId, kind);
+        try (RecordSource source = open(format, input);
+             ErrorSink errors = new ErrorSink(errorFile)) {
+            List<SourceRecord> batch = new ArrayList<>(batchSize);
+            long line = 0;
+            try {
+                SourceRecord record;
+                while ((record = source.next()) != null) {
+                    report.setRead(report.getRead() + 1);
+                    line = record.line;
+                    batch.add(record);
+                    if (batch.size() >= batchSize) {
+                        writeBatch(kind, batch, report, errors);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    writeBatch(kind, batch, report, errors);
+                }
+            } catch (IOException | RuntimeException ex) {
+                // Keep what was written so far; records of the unwritten batch count as read only
+                logger.warn("Import {} of {} stopped after line {}", importId, kind, line, ex);
+                report.setError("Import stopped after line " + line + ": " + ex.getMessage());
+                errors.write(line, report.getError());
+            }
+            if (errors.count > 0) {
+                report.setErrorFile(errorFile.toString());
+            }
+        }
+        logger.info("Import {} of {}: read {}, imported {}, failed {}",
+                importId, kind, report.getRead(), report.getImported(), report.getFailed());
+        return report;
+    }
+
+    public Path errorFile(String importId) {
+        // The id becomes a file name, so only accept what importRecords generates
+        UUID.fromString(importId);
+        return Paths.get(errorDir).resolve(importId + ".errors.ndjson");
+    }
+
+    private void writeBatch(String kind, List<SourceRecord> batch, ImportReport report, ErrorSink errors) throws IOException {
+        List<SourceRecord> parsed = new ArrayList<>();
+        for (SourceRecord record : batch) {
+            if (record.error != null) {
+                fail(record.line, record.error, report, errors);
+            } else {
+                parsed.add(record);
+            }
+        }
+        if (PETS.equals(kind)) {
+            writePets(parsed, report, errors);
+        } else {
+            writeMedicalHistories(parsed, report, errors);
+        }
+    }
+
+    private void writePets(List<SourceRecord> records, ImportReport report, ErrorSink errors) throws IOException {
+        Set<String> usernames = new HashSet<>();
+        Set<String> ownerIds = new HashSet<>();
+        for (SourceRecord record : records) {
+            addIfPresent(usernames, record.fields.get("ownerUsername"));
+            addIfPresent(ownerIds, record.fields.get("ownerId"));
+        }
+        Map<String, String> ownerIdsByUsername = idsByField(User.class, "username", usernames);
+        Set<String> knownOwners = existingIds(User.class, ownerIds);
+
+        List<Pet> pets = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+        for (SourceRecord record : records) {
+            try {
+                PetDTO dto = objectMapper.convertValue(record.fields, PetDTO.class);
+                String error = violations(dto);
+                String ownerId = text(record.fields.get("ownerId"));
+                String username = text(record.fields.get("ownerUsername"));
+                if (error == null && ownerId == null && username == null) {
+                    error = "ownerId or ownerUsername is required";
+                } else if (error == null && ownerId != null && !knownOwners.contains(ownerId)) {
+                    error = "Owner not found: " + ownerId;
+                } else if (error == null && ownerId == null) {
+                    ownerId = ownerIdsByUsername.get(username);
+                    if (ownerId == null) {
+                        error = "Owner not found: " + username;
+                    }
+                }
+                if (error != null) {
+                    fail(record.line, error, report, errors);
+                    continue;
+                }
+                pets.add(toPet(dto, ownerId));
+                lines.add(record.line);
+            } catch (IllegalArgumentException ex) {
+                fail(record.line, "Invalid record: " + ex.getMessage(), report, errors);
+            }
+        }
+        insert(Pet.class, pets, lines, report, errors);
+    }
+
+    private void writeMedicalHistories(List<SourceRecord> records, ImportReport report, ErrorSink errors) throws IOException {
+        Set<String> petIds = new HashSet<>();
+        Set<String> vetIds = new HashSet<>();
+        Set<String> licenseNumbers = new HashSet<>();
+        for (SourceRecord record : records) {
+            addIfPresent(petIds, record.fields.get("petId"));
+            addIfPresent(vetIds, record.fields.get("vetId"));
+            addIfPresent(licenseNumbers, record.fields.get("vetLicenseNumber"));
+        }
+        Set<String> knownPets = existingIds(Pet.class, petIds);
+        Set<String> knownVets = existingIds(Vet.class, vetIds);
+        Map<String, String> vetIdsByLicense = idsByField(Vet.class, "licenseNumber", licenseNumbers);
+
+        List<MedicalHistory> histories = new ArrayList<>();
+        List<Long> lines = new ArrayList<>();
+        for (SourceRecord record : records) {
+            try {
+                Map<String, Object> fields = new LinkedHashMap<>(record.fields);
+                splitList(fields, "symptoms");
+                splitList(fields, "attachments");
+                MedicalHistory history = objectMapper.convertValue(fields, MedicalHistory.class);
+                String error = violations(history);
+                String vetId = text(fields.get("vetId"));
+                String license = text(fields.get("vetLicenseNumber"));
+                if (error == null && (history.getPetId() == null || history.getVisitDate() == null)) {
+                    error = "petId and visitDate are required";
+                } else if (error == null && !knownPets.contains(history.getPetId())) {
+                    error = "Pet not found: " + history.getPetId();
+                } else if (error == null && vetId == null && license == null) {
+                    error = "vetId or vetLicenseNumber is required";
+                } else if (error == null && vetId != null && !knownVets.contains(vetId)) {
+                    error = "Vet not found: " + vetId;
+                } else if (error == null && vetId == null) {
+                    vetId = vetIdsByLicense.get(license);
+                    if (vetId == null) {
+                        error = "Vet not found: " + license;
+                    }
+                }
+                if (error != null) {
+                    fail(record.line, error, report, errors);
+                    continue;
+                }
+                history.setId(new ObjectId().toHexString());
+                history.setVetId(vetId);
+                LocalDateTime now = LocalDateTime.now();
+                history.setCreatedAt(now);
+                history.setUpdatedAt(now);
+                histories.add(history);
+                lines.add(record.line);
+            } catch (IllegalArgumentException ex) {
+                fail(record.line, "Invalid record: " + ex.getMessage(), report, errors);
+            }
+        }
+        insert(MedicalHistory.class, histories, lines, report, errors);
+    }
+
+    private <T> void insert(Class<T> type, List<T> documents, List<Long> lines,
+                            ImportReport report, ErrorSink errors) throws IOException {
+        if (documents.isEmpty()) {
+            return;
+        }
+        int failed = 0;
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type).insert(documents).execute();
+        } catch (BulkOperationException ex) {
+            for (BulkWriteError error : ex.getErrors()) {
+                fail(lines.get(error.getIndex()), error.getMessage(), report, errors);
+                failed++;
+            }
+        }
+        report.setImported(report.getImported() + documents.size() - failed);
+    }
+
+    private static Pet toPet(PetDTO dto, String ownerId) {
+        Pet pet = new Pet(dto.getName(), dto.getSpecies(), dto.getBreed(), dto.getAge(), ownerId);
+        pet.setId(new ObjectId().toHexString());
+        if (dto.getWeight() != null) {
+            pet.setWeight(dto.getWeight());
+        }
+        pet.setColor(dto.getColor());
+        pet.setGender(dto.getGender());
+        pet.setDateOfBirth(dto.getDateOfBirth());
+        pet.setMicrochipNumber(dto.getMicrochipNumber());
+        pet.setNeutered(Boolean.TRUE.equals(dto.getIsNeutered()));
+        pet.setSpecialNotes(dto.getSpecialNotes());
+        LocalDateTime now = LocalDateTime.now();
+        pet.setCreatedAt(now);
+        pet.setUpdatedAt(now);
+        return pet;
+    }
+
+    private <T> String violations(T value) {
+        Set<ConstraintViolation<T>> violations = validator.validate(value);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    // One $in query, answered from the _id index
+    private Set<String> existingIds(Class<?> type, Collection<String> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return mongoTemplate.findDistinct(new Query(where("id").in(ids)), "id", type, Object.class).stream()
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+
+    // One $in query on a unique field, returning field value -> _id
+    private Map<String, String> idsByField(Class<?> type, String field, Collection<String> values) {
+        if (values.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(where(field).in(values));
+        query.fields().include(field);
+        Map<String, String> ids = new HashMap<>();
+        for (Document document : mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(type))) {
+            ids.put(String.valueOf(document.get(field)), document.get("_id").toString());
+        }
+        return ids;
+    }
+
+    private void fail(long line, String error, ImportReport report, ErrorSink errors) throws IOException {
+        report.setFailed(report.getFailed() + 1);
+        errors.write(line, error);
+    }
+
+    private static void addIfPresent(Set<String> values, Object value) {
+        String text = text(value);
+        if (text != null) {
+            values.add(text);
+        }
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    // Editors on Windows often save UTF-8 with a byte order mark, which
+    // InputStreamReader passes through as the first character
+    private static String stripByteOrderMark(String text) {
+        return !text.isEmpty() && text.charAt(0) == BYTE_ORDER_MARK ? text.substring(1) : text;
+    }
+
+    private static void splitList(Map<String, Object> fields, String name) {
+        if (fields.get(name) instanceof String value) {
+            fields.put(name, value.isBlank() ? null : Arrays.stream(value.split(LIST_SEPARATOR))
+                    .map(String::trim)
+                    .filter(item -> !item.isEmpty())
+                    .toList());
+        }
+    }
+
+    private RecordSource open(String format, InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String normalized = format == null ? "" : format.toLowerCase(Locale.ROOT);
+        return switch (normalized) {
+            case CSV -> new CsvSource(reader, new CsvReader(reader, maxFieldLength, maxRecordLength));
+            case NDJSON -> new NdjsonSource(reader);
+            default -> throw new IllegalArgumentException("Unknown import format: " + format + " (expected csv or ndjson)");
+        };
+    }
+
+    private static final class SourceRecord {
+        private final long line;
+        private final Map<String, Object> fields;
+        private final String error;
+
+        private SourceRecord(long line, Map<String, Object> fields, String error) {
+            this.line = line;
+            this.fields = fields;
+            this.error = error;
+        }
+    }
+
+    private interface RecordSource extends Closeable {
+        // Next record, or null at end of input
+        SourceRecord next() throws IOException;
+    }
+
+    private static final class CsvSource implements RecordSource {
+        private final BufferedReader reader;
+        private final CsvReader csv;
+        private List<String> header;
+
+        private CsvSource(BufferedReader reader, CsvReader csv) {
+            this.reader = reader;
+            this.csv = csv;
+        }
+
+        @Override
+        public SourceRecord next() throws IOException {
+            if (header == null) {
+                // A broken header leaves nothing to map values to, so it stops the import
+                header = csv.readRecord();
+                if (header == null) {
+                    return null;
+                }
+                header = header.stream().map(name -> stripByteOrderMark(name).trim()).toList();
+            }
+            List<String> values;
+            try {
+                values = csv.readRecord();
+            } catch (CsvReader.MalformedRecordException ex) {
+                return new SourceRecord(ex.getRecordLine(), null, ex.getMessage());
+            }
+            if (values == null) {
+                return null;
+            }
+            if (values.size() != header.size()) {
+                return new SourceRecord(csv.getRecordLine(), null,
+                        "Expected " + header.size() + " columns but found " + values.size());
+            }
+            Map<String, Object> fields = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                String value = values.get(i);
+                fields.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return new SourceRecord(csv.getRecordLine(), fields, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private final class NdjsonSource implements RecordSource {
+        private final BufferedReader reader;
+        private long line;
+
+        private NdjsonSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public SourceRecord next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+                if (line == 1) {
+                    text = stripByteOrderMark(text);
+                }
+            } while (text.isBlank());
+            try {
+                return new SourceRecord(line, objectMapper.readValue(text, LinkedHashMap.class), null);
+            } catch (JsonProcessingException ex) {
+                return new SourceRecord(line, null, "Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // Error sidecar, created on the first failed line
+    private final class ErrorSink implements Closeable {
+        private final Path path;
+        private BufferedWriter writer;
+        private long count;
+
+        private ErrorSink(Path path) {
+            this.path = path;
+        }
+
+        private void write(long line, String error) throws IOException {
+            if (writer == null) {
+                Files.createDirectories(path.toAbsolutePath().getParent());
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("line", line);
+            entry.put("error", error);
+            writer.write(objectMapper.writeValueAsString(entry));
+            writer.newLine();
+            count++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.petcare.service;
+
+import com.petcare.dto.BulkItemResult;
+import com.petcare.dto.BulkResult;
+import com.petcare.dto.VaccinationDTO;
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.model.Vet;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Records many vaccinations in one request. The caller must be a vet and every item
+// is recorded under the caller's own vet profile. Items are validated individually
+// and all pets are checked with one $in query; the remaining items are created
+// through VaccinationService, so they get the same defaults as a single create. One
+// bad item never blocks the rest, and every item gets its own result.
+@Service
+public class BulkVaccinationService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private VaccinationService vaccinationService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private VetDirectory vetDirectory;
+
+    @Value("${app.vaccinations.bulkMaxSize:5000}")
+    private int bulkMaxSize;
+
+    public BulkResult createVaccinations(List<VaccinationDTO> requests, String username) {
+        Vet vet = callerVet(username);
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("No vaccinations given");
+        }
+        if (requests.size() > bulkMaxSize) {
+            throw new IllegalArgumentException("At most " + bulkMaxSize + " vaccinations can be recorded per request");
+        }
+
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        Set<String> petIds = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            VaccinationDTO request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = BulkItemResult.rejected(i, error);
+                continue;
+            }
+            petIds.add(request.getPetId());
+        }
+
+        Map<String, String> petOwners = petOwners(petIds);
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            VaccinationDTO request = requests.get(i);
+            String petId = request.getPetId();
+            if (!petOwners.containsKey(petId)) {
+                results[i] = BulkItemResult.rejected(i, "Pet not found: " + petId);
+            } else if (petOwners.get(petId) == null) {
+                results[i] = BulkItemResult.rejected(i, "Pet has no registered owner: " + petId);
+            } else {
+                results[i] = create(i, request, vet, username);
+            }
+        }
+
+        return new BulkResult(Arrays.asList(results));
+    }
+
+    // Only a signed-in vet with a vet profile may record vaccinations
+    private Vet callerVet(String username) {
+        User user = userCache.getByUsername(username);
+        if (!"VET".equalsIgnoreCase(user.getRole())) {
+            throw new AccessDeniedException("Only vets can record vaccinations");
+        }
+        return vetDirectory.getVetByUserId(user.getId())
+                .orElseThrow(() -> new AccessDeniedException("No vet profile for user: " + username));
+    }
+
+    private String validate(VaccinationDTO request) {
+        if (request == null) {
+            return "Empty item";
+        }
+        // Items are always recorded under the caller's vet, so vetId is not required
+        List<String> violations = validator.validate(request).stream()
+                .filter(violation -> !"vetId".equals(violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .toList();
+        if (!violations.isEmpty()) {
+            return String.join("; ", violations);
+        }
+        try {
+            status(request);
+        } catch (IllegalArgumentException ex) {
+            return "Invalid status: " + request.getStatus();
+        }
+        return null;
+    }
+
+    // Pet id -> owner id (null when the pet has no owner) for the pets that exist,
+    // from one $in query answered from the _id index
+    private Map<String, String> petOwners(Collection<String> petIds) {
+        if (petIds.isEmpty()) {
+            return Map.of();
+        }
+        Query query = new Query(where("id").in(petIds));
+        query.fields().include("ownerId");
+        Map<String, String> owners = new HashMap<>();
+        mongoTemplate.find(query, Pet.class).forEach(pet -> owners.put(pet.getId(), pet.getOwnerId()));
+        return owners;
+    }
+
+    private BulkItemResult create(int position, VaccinationDTO request, Vet vet, String username) {
+        request.setVetId(vet.getId());
+        try {
+            Vaccination vaccination = vaccinationService.createVaccination(request, username);
+            return BulkItemResult.created(position, vaccination.getId());
+        } catch (Exception e) {
+            return BulkItemResult.failed(position, e.getMessage());
+        }
+    }
+
+    private static Vaccination.VaccinationStatus status(VaccinationDTO request) {
+        return request.getStatus() == null ? Vaccination.VaccinationStatus.SCHEDULED
+                : Vaccination.VaccinationStatus.valueOf(request.getStatus().toUpperCase(Locale.ROOT));
+    }
+}
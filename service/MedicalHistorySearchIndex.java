@@ -0,0 +1,338 @@
+package com.petcare.service;
+
+import com.petcare.model.MedicalHistory;
+import com.petcare.repository.MedicalHistoryRepository;
+import com.petcare.util.MongoEvents;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Trigram inverted index over diagnosis, visit reason and symptoms of medical
+// history records. Built from a cursor at startup and kept current from Mongo
+// save/delete events, so substring searches never run a regex scan. A rebuild
+// fills a new set of maps and swaps it in as one reference, so searches keep
+// using the complete previous index until the new one is ready.
+@Service
+public class MedicalHistorySearchIndex extends AbstractMongoEventListener<MedicalHistory> {
+
+    private static final Logger logger = LoggerFactory.getLogger(MedicalHistorySearchIndex.class);
+
+    private static final int DIAGNOSIS_WEIGHT = 3;
+    private static final int VISIT_REASON_WEIGHT = 2;
+    private static final int SYMPTOM_WEIGHT = 1;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MedicalHistoryRepository medicalHistoryRepository;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    // Guards swapping the index and applying events to an index being rebuilt
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Index index = new Index();
+    private Rebuild rebuild; // guarded by lock
+
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+        ready = true;
+    }
+
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildInto(new Rebuild());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildInto(Rebuild next) {
+        lock.lock();
+        try {
+            rebuild = next;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            Query query = new Query();
+            query.fields().include("diagnosis", "visitReason", "symptoms", "visitDate");
+            try (Stream<MedicalHistory> histories = mongoTemplate.stream(query, MedicalHistory.class)) {
+                histories.forEach(next::load);
+            }
+            // Swapping and detaching under one lock means no event can miss both indexes
+            lock.lock();
+            try {
+                index = next.index;
+                rebuild = null;
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            // After a failed read, stop feeding events to the abandoned index
+            lock.lock();
+            try {
+                rebuild = null;
+            } finally {
+                lock.unlock();
+            }
+        }
+        logger.info("Medical history search index built with {} records and {} trigrams",
+                next.index.records.size(), next.index.postings.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Records whose diagnosis, visit reason or symptoms contain the text, best matches first
+    public List<MedicalHistory> search(String text, int limit) {
+        String query = normalize(text);
+        if (query.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Index current = index;
+        List<IndexedRecord> ranked = current.candidates(query).stream()
+                .map(current.records::get)
+                .filter(record -> record != null && record.score(query) > 0)
+                .sorted(Comparator.comparingInt((IndexedRecord record) -> record.score(query)).reversed()
+                        .thenComparing(record -> record.visitDate, Comparator.nullsLast(Comparator.reverseOrder())))
+                .limit(limit)
+                .toList();
+
+        List<String> ids = ranked.stream().map(record -> record.id).toList();
+        Map<String, MedicalHistory> byId = medicalHistoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(MedicalHistory::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(history -> history != null)
+                .toList();
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<MedicalHistory> event) {
+        MedicalHistory history = event.getSource();
+        if (history.getId() != null) {
+            apply(history.getId(), target -> target.index(history));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<MedicalHistory> event) {
+        MongoEvents.deletedIds(event).ifPresentOrElse(
+                ids -> ids.forEach(id -> apply(id, target -> target.remove(id))),
+                this::scheduleRebuild);
+    }
+
+    // Applies an event to the live index and to an index being rebuilt. The rebuild
+    // then skips cursor rows for that id, which may have been read before the event.
+    private void apply(String id, Consumer<Index> change) {
+        lock.lock();
+        try {
+            change.accept(index);
+            if (rebuild != null) {
+                rebuild.touched.add(id);
+                change.accept(rebuild.index);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A delete by arbitrary query leaves unknown ids behind, so rebuild off the request
+    // thread; deletes arriving before the rebuild starts are covered by the same one
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            taskScheduler.schedule(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException ex) {
+                    logger.error("Medical history search index rebuild failed", ex);
+                }
+            }, Instant.now());
+        }
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // One complete index; a rebuild fills a new one and swaps it in
+    private static final class Index {
+        // trigram -> ids of records containing it
+        private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+        // id -> normalized searchable text of the record
+        private final Map<String, IndexedRecord> records = new ConcurrentHashMap<>();
+
+        private void index(MedicalHistory history) {
+            IndexedRecord record = new IndexedRecord(history);
+            records.compute(history.getId(), (id, previous) -> {
+                if (previous != null) {
+                    unlink(id, previous.trigrams);
+                }
+                link(id, record.trigrams);
+                return record;
+            });
+        }
+
+        private void remove(String id) {
+            records.computeIfPresent(id, (key, previous) -> {
+                unlink(key, previous.trigrams);
+                return null;
+            });
+        }
+
+        private void link(String id, Set<String> trigrams) {
+            for (String trigram : trigrams) {
+                postings.compute(trigram, (key, ids) -> {
+                    Set<String> result = ids == null ? ConcurrentHashMap.newKeySet() : ids;
+                    result.add(id);
+                    return result;
+                });
+            }
+        }
+
+        private void unlink(String id, Set<String> trigrams) {
+            for (String trigram : trigrams) {
+                postings.computeIfPresent(trigram, (key, ids) -> {
+                    ids.remove(id);
+                    return ids.isEmpty() ? null : ids;
+                });
+            }
+        }
+
+        private Set<String> candidates(String query) {
+            if (query.length() < 3) {
+                // Too short for a trigram: union the postings of every trigram containing it
+                Set<String> ids = new HashSet<>();
+                postings.forEach((trigram, postingIds) -> {
+                    if (trigram.contains(query)) {
+                        ids.addAll(postingIds);
+                    }
+                });
+                return ids;
+            }
+
+            List<Set<String>> lists = new ArrayList<>();
+            for (String trigram : trigrams(query)) {
+                Set<String> ids = postings.get(trigram);
+                if (ids == null) {
+                    return Set.of();
+                }
+                lists.add(ids);
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+
+            Set<String> result = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+                result.retainAll(lists.get(i));
+            }
+            return result;
+        }
+    }
+
+    // An index being filled from the cursor, with the ids events changed meanwhile
+    private final class Rebuild {
+        private final Index index = new Index();
+        private final Set<String> touched = new HashSet<>();
+
+        private void load(MedicalHistory history) {
+            if (history.getId() == null) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (!touched.contains(history.getId())) {
+                    index.index(history);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class IndexedRecord {
+        private final String id;
+        private final String diagnosis;
+        private final String visitReason;
+        private final List<String> symptoms;
+        private final LocalDate visitDate;
+        private final Set<String> trigrams = new HashSet<>();
+
+        private IndexedRecord(MedicalHistory history) {
+            this.id = history.getId();
+            this.diagnosis = normalize(history.getDiagnosis());
+            this.visitReason = normalize(history.getVisitReason());
+            this.symptoms = history.getSymptoms() == null ? List.of()
+                    : history.getSymptoms().stream().map(MedicalHistorySearchIndex::normalize).toList();
+            this.visitDate = history.getVisitDate();
+
+            trigrams.addAll(MedicalHistorySearchIndex.trigrams(diagnosis));
+            trigrams.addAll(MedicalHistorySearchIndex.trigrams(visitReason));
+            symptoms.forEach(symptom -> trigrams.addAll(MedicalHistorySearchIndex.trigrams(symptom)));
+        }
+
+        // Weighted by field; a match at the start of a field counts double
+        private int score(String query) {
+            int score = fieldScore(diagnosis, query, DIAGNOSIS_WEIGHT)
+                    + fieldScore(visitReason, query, VISIT_REASON_WEIGHT);
+            for (String symptom : symptoms) {
+                score += fieldScore(symptom, query, SYMPTOM_WEIGHT);
+            }
+            return score;
+        }
+
+        private static int fieldScore(String field, String query, int weight) {
+            int index = field.indexOf(query);
+            if (index < 0) {
+                return 0;
+            }
+            return index == 0 ? weight * 2 : weight;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.petcare.service;
+
+import com.petcare.dto.CursorPage;
+import com.petcare.model.Appointment;
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.model.Vet;
+import com.petcare.repository.KeysetPager;
+import com.petcare.repository.MedicalHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Cursor-paginated variants of the list endpoints. Each query has a matching
+// index in MongoConfig ending in _id, so deep pages cost the same as the first.
+@Service
+public class PagedQueryService {
+
+    // Case-insensitive equality that can use the collation indexes in MongoConfig
+    public static final Collation CASE_INSENSITIVE = Collation.of("en").strength(Collation.ComparisonLevel.secondary());
+
+    @Autowired
+    private KeysetPager keysetPager;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private MedicalHistoryRepository medicalHistoryRepository;
+
+    @Value("${app.medicalHistory.recentDefaultLimit:10}")
+    private int recentDefaultLimit;
+
+    @Value("${app.medicalHistory.recentMaxLimit:100}")
+    private int recentMaxLimit;
+
+    // Pets
+    public CursorPage<Pet> getAllPets(String cursor, Integer size) {
+        return keysetPager.page(Pet.class, new Criteria(), cursor, size);
+    }
+
+    // view is Pet.class or PetSummary.class
+    public <R> CursorPage<R> getPetsByOwnerId(String ownerId, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(Pet.class, view, Criteria.where("ownerId").is(ownerId), null, null, cursor, size);
+    }
+
+    public <R> CursorPage<R> getPetsByUsername(String username, Class<R> view, String cursor, Integer size) {
+        User owner = userCache.getByUsername(username);
+        return getPetsByOwnerId(owner.getId(), view, cursor, size);
+    }
+
+    public <R> CursorPage<R> getPetsBySpecies(String species, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(Pet.class, view, Criteria.where("species").is(species), null, CASE_INSENSITIVE,
+                cursor, size);
+    }
+
+    public <R> CursorPage<R> getPetsByBreed(String breed, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(Pet.class, view, Criteria.where("breed").is(breed), null, CASE_INSENSITIVE,
+                cursor, size);
+    }
+
+    public CursorPage<Pet> getPetsByAgeRange(int minAge, int maxAge, String cursor, Integer size) {
+        return keysetPager.page(Pet.class, Criteria.where("age").gte(minAge).lte(maxAge), "age", cursor, size);
+    }
+
+    // Appointments
+    public CursorPage<Appointment> getAllAppointments(String cursor, Integer size) {
+        return keysetPager.page(Appointment.class, new Criteria(), cursor, size);
+    }
+
+    // view is Appointment.class or AppointmentSummary.class
+    public <R> CursorPage<R> getAppointmentsByOwnerId(String ownerId, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(Appointment.class, view, Criteria.where("ownerId").is(ownerId),
+                null, null, cursor, size);
+    }
+
+    public <R> CursorPage<R> getAppointmentsByVetId(String vetId, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(Appointment.class, view, Criteria.where("vetId").is(vetId),
+                "appointmentDateTime", null, cursor, size);
+    }
+
+    public <R> CursorPage<R> getAppointmentsByPetId(String petId, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(Appointment.class, view, Criteria.where("petId").is(petId),
+                "appointmentDateTime", null, cursor, size);
+    }
+
+    public CursorPage<Appointment> getAppointmentsByDateRange(LocalDateTime startDate, LocalDateTime endDate,
+                                                              String cursor, Integer size) {
+        return keysetPager.page(Appointment.class,
+                Criteria.where("appointmentDateTime").gte(startDate).lte(endDate),
+                "appointmentDateTime", cursor, size);
+    }
+
+    // Medical history
+    public CursorPage<MedicalHistory> getAllMedicalHistories(String cursor, Integer size) {
+        return keysetPager.page(MedicalHistory.class, new Criteria(), cursor, size);
+    }
+
+    // view is MedicalHistory.class or MedicalHistorySummary.class
+    public <R> CursorPage<R> getMedicalHistoriesByPetId(String petId, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(MedicalHistory.class, view, Criteria.where("petId").is(petId),
+                "visitDate", null, cursor, size);
+    }
+
+    public <R> CursorPage<R> getMedicalHistoriesByVetId(String vetId, Class<R> view, String cursor, Integer size) {
+        return keysetPager.page(MedicalHistory.class, view, Criteria.where("vetId").is(vetId),
+                null, null, cursor, size);
+    }
+
+    // Newest visits of a pet. Sorted and limited by Mongo on {petId, visitDate: -1},
+    // so the cost depends on the limit, not on how long the pet's history is.
+    public List<MedicalHistory> getRecentMedicalHistoriesByPetId(String petId, Integer limit) {
+        int max = limit == null ? recentDefaultLimit : Math.min(Math.max(limit, 1), recentMaxLimit);
+        return medicalHistoryRepository.findByPetIdOrderByVisitDateDesc(petId, Limit.of(max));
+    }
+
+    public CursorPage<MedicalHistory> getMedicalHistoriesByDateRange(LocalDate startDate, LocalDate endDate,
+                                                                     String cursor, Integer size) {
+        return keysetPager.page(MedicalHistory.class, Criteria.where("visitDate").gte(startDate).lte(endDate),
+                "visitDate", cursor, size);
+    }
+
+    // Vaccinations
+    public CursorPage<Vaccination> getAllVaccinations(String cursor, Integer size) {
+        return keysetPager.page(Vaccination.class, new Criteria(), cursor, size);
+    }
+
+    public CursorPage<Vaccination> getVaccinationsByPetId(String petId, String cursor, Integer size) {
+        return keysetPager.page(Vaccination.class, Criteria.where("petId").is(petId), cursor, size);
+    }
+
+    public CursorPage<Vaccination> getVaccinationsByVetId(String vetId, String cursor, Integer size) {
+        return keysetPager.page(Vaccination.class, Criteria.where("vetId").is(vetId), cursor, size);
+    }
+
+    public CursorPage<Vaccination> getVaccinationsByVaccineType(String vaccineType, String cursor, Integer size) {
+        return keysetPager.page(Vaccination.class, Criteria.where("vaccineType").is(vaccineType),
+                null, CASE_INSENSITIVE, cursor, size);
+    }
+
+    public CursorPage<Vaccination> getVaccinationsByDateRange(LocalDate startDate, LocalDate endDate,
+                                                              String cursor, Integer size) {
+        return keysetPager.page(Vaccination.class, Criteria.where("administeredDate").gte(startDate).lte(endDate),
+                "administeredDate", cursor, size);
+    }
+
+    public CursorPage<Vaccination> getUpcomingVaccinations(String cursor, Integer size) {
+        LocalDate today = LocalDate.now();
+        return keysetPager.page(Vaccination.class, Criteria.where("nextDueDate").gte(today).lte(today.plusDays(30)),
+                "nextDueDate", cursor, size);
+    }
+
+    public CursorPage<Vaccination> getOverdueVaccinations(String cursor, Integer size) {
+        return keysetPager.page(Vaccination.class,
+                Criteria.where("status").is(Vaccination.VaccinationStatus.SCHEDULED).and("nextDueDate").lt(LocalDate.now()),
+                "nextDueDate", cursor, size);
+    }
+
+    // Vets
+    public CursorPage<Vet> getAllVets(String cursor, Integer size) {
+        return keysetPager.page(Vet.class, new Criteria(), cursor, size);
+    }
+
+    public CursorPage<Vet> getVetsBySpecialization(String specialization, String cursor, Integer size) {
+        return keysetPager.page(Vet.class, Criteria.where("specialization").is(specialization),
+                null, CASE_INSENSITIVE, cursor, size);
+    }
+
+    public CursorPage<Vet> getVetsByClinicName(String clinicName, String cursor, Integer size) {
+        return keysetPager.page(Vet.class, Criteria.where("clinicName").is(clinicName),
+                null, CASE_INSENSITIVE, cursor, size);
+    }
+}
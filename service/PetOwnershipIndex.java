@@ -0,0 +1,173 @@
+package com.petcare.service;
+
+import com.petcare.model.Pet;
+import com.petcare.model.Vaccination;
+import com.petcare.util.BoundedTtlCache;
+import com.petcare.util.MongoEvents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Ownership facts used by the owner authorization checks: petId -> ownerId and
+// vaccinationId -> petId; usernames resolve to user ids through UserCache. Entries
+// are loaded on first use with a single-field projection and then kept current
+// from Mongo save/delete events, so creating, deleting or adopting a pet (all saved
+// through the repository) updates the index immediately and a check is a hash
+// lookup. The TTL bounds staleness from changes this instance sees no event for,
+// such as a pet transferred through another instance.
+@Service
+public class PetOwnershipIndex extends AbstractMongoEventListener<Object> {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserCache userCache;
+
+    private final Mapping petOwners;
+    private final Mapping vaccinationPets;
+
+    public PetOwnershipIndex(MeterRegistry meterRegistry,
+                             @Value("${app.ownership.ttlMs:60000}") long ttlMillis,
+                             @Value("${app.ownership.maxEntries:100000}") int maxEntries) {
+        this.petOwners = new Mapping("pets", ttlMillis, maxEntries, meterRegistry);
+        this.vaccinationPets = new Mapping("vaccinations", ttlMillis, maxEntries, meterRegistry);
+    }
+
+    public boolean isPetOwnedBy(String petId, String username) {
+        return isOwner(petOwners.get(petId, this::loadPetOwner), username);
+    }
+
+    // Whether the owner id belongs to the user with this username
+    public boolean isOwner(String ownerId, String username) {
+        return ownerId != null && userCache.findByUsername(username)
+                .map(user -> ownerId.equals(user.getId()))
+                .orElse(false);
+    }
+
+    public boolean isVaccinationOwnedBy(String vaccinationId, String username) {
+        String petId = vaccinationPets.get(vaccinationId, this::loadVaccinationPet);
+        return petId != null && isPetOwnedBy(petId, username);
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof Pet pet) {
+            petOwners.update(pet.getId(), pet.getOwnerId());
+        } else if (source instanceof Vaccination vaccination) {
+            vaccinationPets.update(vaccination.getId(), vaccination.getPetId());
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Class<?> type = event.getType();
+        if (Pet.class.equals(type)) {
+            removeKeys(petOwners, event);
+        } else if (Vaccination.class.equals(type)) {
+            removeKeys(vaccinationPets, event);
+        }
+    }
+
+    private static void removeKeys(Mapping mapping, AfterDeleteEvent<Object> event) {
+        MongoEvents.deletedIds(event).ifPresentOrElse(ids -> ids.forEach(mapping::remove), mapping::clear);
+    }
+
+    private String loadPetOwner(String petId) {
+        Query query = new Query(where("id").is(petId));
+        query.fields().include("ownerId");
+        Pet pet = mongoTemplate.findOne(query, Pet.class);
+        return pet == null ? null : pet.getOwnerId();
+    }
+
+    private String loadVaccinationPet(String vaccinationId) {
+        Query query = new Query(where("id").is(vaccinationId));
+        query.fields().include("petId");
+        Vaccination vaccination = mongoTemplate.findOne(query, Vaccination.class);
+        return vaccination == null ? null : vaccination.getPetId();
+    }
+
+    // One bounded key -> value cache with its meters. A load only fills the cache if
+    // no event changed that key while it was reading (see BoundedTtlCache.load), so a
+    // stale read never overwrites a newer event and events for other keys never
+    // discard it. When full, expired entries go first, then the least recently used.
+    private static final class Mapping {
+        private final BoundedTtlCache<String, String> entries;
+        private final long ttlMillis;
+        private final Counter hits;
+        private final Counter misses;
+        private final Counter invalidations;
+
+        private Mapping(String name, long ttlMillis, int maxEntries, MeterRegistry meterRegistry) {
+            this.entries = new BoundedTtlCache<>(maxEntries);
+            this.ttlMillis = ttlMillis;
+            this.hits = Counter.builder("ownership.index.lookups")
+                    .description("Ownership index lookups answered from memory or loaded from Mongo")
+                    .tag("index", name).tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("ownership.index.lookups")
+                    .description("Ownership index lookups answered from memory or loaded from Mongo")
+                    .tag("index", name).tag("result", "miss")
+                    .register(meterRegistry);
+            this.invalidations = Counter.builder("ownership.index.invalidations")
+                    .description("Ownership index entries changed or removed by Mongo events")
+                    .tag("index", name)
+                    .register(meterRegistry);
+            Gauge.builder("ownership.index.size", entries, BoundedTtlCache::size)
+                    .description("Entries held by the ownership index")
+                    .tag("index", name)
+                    .register(meterRegistry);
+        }
+
+        private String get(String key, Function<String, String> loader) {
+            if (key == null) {
+                return null;
+            }
+            String value = entries.get(key);
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            misses.increment();
+            return entries.load(key, loader, ttlMillis);
+        }
+
+        private void update(String key, String value) {
+            if (key == null) {
+                return;
+            }
+            if (value == null) {
+                remove(key);
+                return;
+            }
+            String previous = entries.put(key, value, System.currentTimeMillis() + ttlMillis);
+            if (previous != null && !previous.equals(value)) {
+                invalidations.increment();
+            }
+        }
+
+        private void remove(String key) {
+            if (entries.invalidate(key) != null) {
+                invalidations.increment();
+            }
+        }
+
+        private void clear() {
+            invalidations.increment(entries.size());
+            entries.clear();
+        }
+    }
+}
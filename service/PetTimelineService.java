@@ -0,0 +1,193 @@
+package com.petcare.service;
+
+import com.petcare.dto.CursorPage;
+import com.petcare.dto.TimelineEvent;
+import com.petcare.model.Appointment;
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Vaccination;
+import com.petcare.repository.AppointmentSummary;
+import com.petcare.repository.MedicalHistorySummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Appointments, vaccinations and medical history of one pet as a single stream,
+// newest first. The three keyset queries run concurrently on the fan-out executor,
+// each limited to one page, and are merged in memory. Events are ordered by
+// (time, type, id) descending, and the cursor is the last event's key, so each
+// source can seek exactly past it using its {petId, date, _id} index. Records
+// without a date have no place in the order and are left out of the timeline.
+@Service
+public class PetTimelineService {
+
+    public static final String APPOINTMENT = "APPOINTMENT";
+    public static final String VACCINATION = "VACCINATION";
+    public static final String MEDICAL_HISTORY = "MEDICAL_HISTORY";
+
+    // Position of each type among events with the same timestamp
+    private static final List<String> TYPE_ORDER = List.of(APPOINTMENT, VACCINATION, MEDICAL_HISTORY);
+
+    private static final Comparator<TimelineEvent> NEWEST_FIRST = Comparator
+            .comparing(TimelineEvent::getOccurredAt)
+            .thenComparing(event -> TYPE_ORDER.indexOf(event.getType()))
+            .thenComparing(TimelineEvent::getId)
+            .reversed();
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    @Qualifier("fanOutExecutor")
+    private ExecutorService fanOutExecutor;
+
+    @Value("${app.pagination.defaultPageSize:50}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.maxPageSize:500}")
+    private int maxPageSize;
+
+    public CursorPage<TimelineEvent> getTimeline(String petId, String cursor, Integer size) {
+        int pageSize = size == null ? defaultPageSize : Math.min(Math.max(size, 1), maxPageSize);
+        Position after = cursor == null || cursor.isEmpty() ? null : decode(cursor);
+        int limit = pageSize + 1;
+
+        CompletableFuture<List<TimelineEvent>> appointments = async(() -> appointments(petId, after, limit));
+        CompletableFuture<List<TimelineEvent>> vaccinations = async(() -> vaccinations(petId, after, limit));
+        CompletableFuture<List<TimelineEvent>> histories = async(() -> medicalHistories(petId, after, limit));
+
+        List<TimelineEvent> events = new ArrayList<>(limit * 3);
+        events.addAll(join(appointments));
+        events.addAll(join(vaccinations));
+        events.addAll(join(histories));
+        events.sort(NEWEST_FIRST);
+
+        if (events.size() <= pageSize) {
+            return new CursorPage<>(events, null, pageSize);
+        }
+        List<TimelineEvent> page = new ArrayList<>(events.subList(0, pageSize));
+        return new CursorPage<>(page, encode(page.get(pageSize - 1)), pageSize);
+    }
+
+    private List<TimelineEvent> appointments(String petId, Position after, int limit) {
+        Query query = new Query(seek(where("petId").is(petId), APPOINTMENT, "appointmentDateTime", after, false))
+                .with(Sort.by(Sort.Direction.DESC, "appointmentDateTime", "id"))
+                .limit(limit);
+        return mongoTemplate.query(Appointment.class).as(AppointmentSummary.class).matching(query).all().stream()
+                .map(appointment -> new TimelineEvent(APPOINTMENT, appointment.getId(),
+                        appointment.getAppointmentDateTime(), appointment))
+                .toList();
+    }
+
+    private List<TimelineEvent> vaccinations(String petId, Position after, int limit) {
+        Query query = new Query(seek(where("petId").is(petId), VACCINATION, "scheduledDate", after, true))
+                .with(Sort.by(Sort.Direction.DESC, "scheduledDate", "id"))
+                .limit(limit);
+        return mongoTemplate.find(query, Vaccination.class).stream()
+                .map(vaccination -> new TimelineEvent(VACCINATION, vaccination.getId(),
+                        vaccination.getScheduledDate().atStartOfDay(), vaccination))
+                .toList();
+    }
+
+    private List<TimelineEvent> medicalHistories(String petId, Position after, int limit) {
+        Query query = new Query(seek(where("petId").is(petId), MEDICAL_HISTORY, "visitDate", after, true))
+                .with(Sort.by(Sort.Direction.DESC, "visitDate", "id"))
+                .limit(limit);
+        return mongoTemplate.query(MedicalHistory.class).as(MedicalHistorySummary.class).matching(query).all().stream()
+                .map(history -> new TimelineEvent(MEDICAL_HISTORY, history.getId(),
+                        history.getVisitDate().atStartOfDay(), history))
+                .toList();
+    }
+
+    // Restricts to dated events of this type whose (time, type, id) key sorts strictly after the cursor
+    private static Criteria seek(Criteria filter, String type, String dateField, Position after, boolean dateOnly) {
+        Criteria dated = filter.and(dateField).ne(null);
+        if (after == null) {
+            return dated;
+        }
+        return dated.andOperator(seekCondition(type, dateField, after, dateOnly));
+    }
+
+    private static Criteria seekCondition(String type, String dateField, Position after, boolean dateOnly) {
+        int rank = TYPE_ORDER.indexOf(type);
+        int cursorRank = TYPE_ORDER.indexOf(after.type);
+        Object cursorTime = dateOnly ? after.time.toLocalDate() : after.time;
+        // A date-only value d stands for d at midnight, which is earlier than any later time on d
+        boolean cursorAfterMidnight = dateOnly && !after.time.toLocalTime().equals(LocalTime.MIDNIGHT);
+
+        if (rank < cursorRank || cursorAfterMidnight) {
+            return where(dateField).lte(cursorTime);
+        }
+        if (rank > cursorRank) {
+            return where(dateField).lt(cursorTime);
+        }
+        return new Criteria().orOperator(
+                where(dateField).lt(cursorTime),
+                new Criteria().andOperator(where(dateField).is(cursorTime), where("id").lt(after.id)));
+    }
+
+    private CompletableFuture<List<TimelineEvent>> async(Supplier<List<TimelineEvent>> query) {
+        return CompletableFuture.supplyAsync(query, fanOutExecutor);
+    }
+
+    private static List<TimelineEvent> join(CompletableFuture<List<TimelineEvent>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    // Cursor format (base64url): "<time>|<type>|<id>"
+    private static String encode(TimelineEvent event) {
+        String raw = event.getOccurredAt() + "|" + event.getType() + "|" + event.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            if (!TYPE_ORDER.contains(parts[1])) {
+                throw new IllegalArgumentException("Unknown event type");
+            }
+            return new Position(LocalDateTime.parse(parts[0]), parts[1], parts[2]);
+        } catch (RuntimeException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    private static final class Position {
+        private final LocalDateTime time;
+        private final String type;
+        private final String id;
+
+        private Position(LocalDateTime time, String type, String id) {
+            this.time = time;
+            this.type = type;
+            this.id = id;
+        }
+    }
+}
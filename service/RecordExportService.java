@@ -0,0 +1,31 @@
+package com.petcare.service;
+
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Vaccination;
+import com.petcare.repository.MedicalHistoryRepository;
+import com.petcare.repository.VaccinationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+// Cursor-backed reads for bulk exports. Every returned stream holds an open Mongo
+// cursor and must be closed by the caller.
+@Service
+public class RecordExportService {
+
+    @Autowired
+    private MedicalHistoryRepository medicalHistoryRepository;
+
+    @Autowired
+    private VaccinationRepository vaccinationRepository;
+
+    public Stream<MedicalHistory> streamMedicalHistoriesByDateRange(LocalDate startDate, LocalDate endDate) {
+        return medicalHistoryRepository.streamByVisitDateBetween(startDate, endDate);
+    }
+
+    public Stream<Vaccination> streamVaccinationsByDateRange(LocalDate startDate, LocalDate endDate) {
+        return vaccinationRepository.streamByAdministeredDateBetween(startDate, endDate);
+    }
+}
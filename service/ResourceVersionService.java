@@ -0,0 +1,57 @@
+package com.petcare.service;
+
+import com.petcare.repository.VersionView;
+import com.petcare.util.ETags;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Reads just enough of a document or list to evaluate If-None-Match and
+// If-Modified-Since, so a 304 is answered before the full records are loaded
+// or serialized. updatedAt is maintained by auditing (@LastModifiedDate).
+@Service
+public class ResourceVersionService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // id and updatedAt of one document, or null when it does not exist
+    public VersionView getVersion(Class<?> type, String id) {
+        return mongoTemplate.query(type)
+                .as(VersionView.class)
+                .matching(new Query(where("id").is(id)))
+                .oneValue();
+    }
+
+    // Weak ETag of the documents matching the filter: their count and newest updatedAt
+    public String getListETag(Class<?> type, Criteria filter, String variant) {
+        return getListETag(type, filter, null, variant);
+    }
+
+    // Same, for lists whose query matches under a collation (e.g. case-insensitive species)
+    public String getListETag(Class<?> type, Criteria filter, Collation collation, String variant) {
+        Aggregation aggregation = newAggregation(
+                match(filter),
+                group().count().as("count").max("updatedAt").as("latest"))
+                .withOptions(AggregationOptions.builder().collation(collation).build());
+        Document result = mongoTemplate.aggregate(aggregation, type, Document.class).getUniqueMappedResult();
+        if (result == null) {
+            return ETags.weak(variant, 0, 0L);
+        }
+        Date latest = result.getDate("latest");
+        return ETags.weak(variant, ((Number) result.get("count")).longValue(), latest == null ? 0L : latest.getTime());
+    }
+}
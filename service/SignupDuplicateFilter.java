@@ -0,0 +1,97 @@
+package com.petcare.service;
+
+import com.petcare.dto.SignUpRequest;
+import com.petcare.model.User;
+import com.petcare.repository.UserRepository;
+import com.petcare.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.stream.Stream;
+
+// Optional Bloom filter over taken usernames, emails and phone numbers.
+// Uniqueness itself is enforced by the unique indexes on users; this only lets
+// signup skip the duplicate check (and the password hash) for values that are
+// definitely new, and confirm likely duplicates with one indexed lookup.
+@Service
+public class SignupDuplicateFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignupDuplicateFilter.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.signup.bloomFilterEnabled:true}")
+    private boolean enabled;
+
+    @Value("${app.signup.expectedUsers:1000000}")
+    private int expectedUsers;
+
+    private BloomFilter takenValues;
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        takenValues = new BloomFilter(expectedUsers * 3, 0.01);
+
+        Query query = new Query();
+        query.fields().include("username", "email", "phoneNumber");
+        long count = 0;
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                register(user);
+                count++;
+            }
+        }
+        logger.info("Signup duplicate filter loaded with {} users", count);
+    }
+
+    // Returns the error message for a value that is already taken, or null if the signup may proceed
+    public String findDuplicate(SignUpRequest signUpRequest) {
+        if (!enabled) {
+            return null;
+        }
+        if (takenValues.mightContain(usernameKey(signUpRequest.getUsername()))
+                && userRepository.existsByUsername(signUpRequest.getUsername())) {
+            return "Error: Username is already taken!";
+        }
+        if (takenValues.mightContain(emailKey(signUpRequest.getEmail()))
+                && userRepository.existsByEmail(signUpRequest.getEmail())) {
+            return "Error: Email is already in use!";
+        }
+        if (signUpRequest.getPhoneNumber() != null
+                && takenValues.mightContain(phoneKey(signUpRequest.getPhoneNumber()))
+                && userRepository.existsByPhoneNumber(signUpRequest.getPhoneNumber())) {
+            return "Error: Phone number is already in use!";
+        }
+        return null;
+    }
+
+    public void register(User user) {
+        if (!enabled) {
+            return;
+        }
+        takenValues.add(usernameKey(user.getUsername()));
+        takenValues.add(emailKey(user.getEmail()));
+        if (user.getPhoneNumber() != null) {
+            takenValues.add(phoneKey(user.getPhoneNumber()));
+        }
+    }
+
+    private static String usernameKey(String username) { return "u:" + username; }
+
+    private static String emailKey(String email) { return "e:" + email; }
+
+    private static String phoneKey(String phoneNumber) { return "p:" + phoneNumber; }
+}
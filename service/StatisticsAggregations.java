@@ -0,0 +1,137 @@
+package com.petcare.service;
+
+import com.petcare.model.Appointment;
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.count;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.facet;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Dashboard statistics computed in the database. Each collection is summarized by
+// a single $facet pipeline: one round trip instead of one count per enum value.
+@Component
+public class StatisticsAggregations {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public Map<String, Object> petStatistics() {
+        Aggregation aggregation = newAggregation(
+                facet(count().as("count")).as("total")
+                        .and(group("species").count().as("count")).as("bySpecies")
+                        .and(match(where("isNeutered").is(true)), count().as("count")).as("neutered")
+                        .and(group().avg("age").as("value")).as("averageAge")
+                        .and(group("ownerId"), count().as("count")).as("owners"));
+        Document result = facetResult(aggregation, Pet.class);
+
+        // Role counts live in another collection, so they take a second (single) round trip
+        List<Document> roles = mongoTemplate.aggregate(
+                newAggregation(group("role").count().as("count")), User.class, Document.class).getMappedResults();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalPets", firstCount(result, "total"));
+        stats.put("bySpecies", countsByKey(result.getList("bySpecies", Document.class)));
+        stats.put("neutered", firstCount(result, "neutered"));
+        stats.put("averageAge", firstValue(result, "averageAge"));
+        stats.put("owners", firstCount(result, "owners"));
+        stats.put("usersByRole", countsByKey(roles));
+        return stats;
+    }
+
+    public Map<String, Object> appointmentStatistics() {
+        Aggregation aggregation = newAggregation(
+                facet(count().as("count")).as("total")
+                        .and(group("status").count().as("count")).as("byStatus")
+                        .and(group("priority").count().as("count")).as("byPriority")
+                        .and(match(where("appointmentDateTime").gte(LocalDateTime.now())
+                                .and("status").in(Appointment.AppointmentStatus.SCHEDULED,
+                                        Appointment.AppointmentStatus.CONFIRMED)),
+                                count().as("count")).as("upcoming"));
+        Document result = facetResult(aggregation, Appointment.class);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalAppointments", firstCount(result, "total"));
+        stats.put("byStatus", countsByEnum(result.getList("byStatus", Document.class), Appointment.AppointmentStatus.class));
+        stats.put("byPriority", countsByEnum(result.getList("byPriority", Document.class), Appointment.Priority.class));
+        stats.put("upcoming", firstCount(result, "upcoming"));
+        return stats;
+    }
+
+    public Map<String, Object> vaccinationStatistics() {
+        LocalDate today = LocalDate.now();
+        Aggregation aggregation = newAggregation(
+                facet(count().as("count")).as("total")
+                        .and(group("status").count().as("count")).as("byStatus")
+                        .and(group("vaccineType").count().as("count")).as("byVaccineType")
+                        .and(match(where("status").is(Vaccination.VaccinationStatus.SCHEDULED)
+                                .and("nextDueDate").lt(today)), count().as("count")).as("overdue")
+                        .and(match(where("nextDueDate").gte(today).lte(today.plusDays(30))),
+                                count().as("count")).as("dueNext30Days"));
+        Document result = facetResult(aggregation, Vaccination.class);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalVaccinations", firstCount(result, "total"));
+        stats.put("byStatus", countsByEnum(result.getList("byStatus", Document.class), Vaccination.VaccinationStatus.class));
+        stats.put("byVaccineType", countsByKey(result.getList("byVaccineType", Document.class)));
+        stats.put("overdue", firstCount(result, "overdue"));
+        stats.put("dueNext30Days", firstCount(result, "dueNext30Days"));
+        return stats;
+    }
+
+    private Document facetResult(Aggregation aggregation, Class<?> type) {
+        Document result = mongoTemplate.aggregate(aggregation, type, Document.class).getUniqueMappedResult();
+        return result == null ? new Document() : result;
+    }
+
+    // Facets ending in a $count hold a single {count: n} document, or none when nothing matched
+    private static long firstCount(Document result, String facet) {
+        List<Document> documents = result.getList(facet, Document.class, List.of());
+        return documents.isEmpty() ? 0L : ((Number) documents.get(0).get("count")).longValue();
+    }
+
+    private static Double firstValue(Document result, String facet) {
+        List<Document> documents = result.getList(facet, Document.class, List.of());
+        if (documents.isEmpty() || documents.get(0).get("value") == null) {
+            return null;
+        }
+        return ((Number) documents.get(0).get("value")).doubleValue();
+    }
+
+    static Map<String, Long> countsByKey(List<Document> groups) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (groups != null) {
+            for (Document group : groups) {
+                Object key = group.get("_id");
+                counts.merge(key == null ? "UNKNOWN" : key.toString(),
+                        ((Number) group.get("count")).longValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    // Every enum constant is listed, with zero for values that have no documents
+    static <E extends Enum<E>> Map<String, Long> countsByEnum(List<Document> groups, Class<E> type) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            counts.put(constant.name(), 0L);
+        }
+        countsByKey(groups).forEach((key, count) -> counts.merge(key, count, Long::sum));
+        return counts;
+    }
+}
@@ -0,0 +1,360 @@
+package com.petcare.service;
+
+import com.petcare.model.Appointment;
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.util.MongoEvents;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// In-memory statistics backend (app.stats.backend=counters). Counts per appointment
+// status, vaccination status, user role and pet species are kept in LongAdders and
+// moved by the delta of each write: before a save or a delete by id the stored key of
+// the document is read by _id, and once the write went through the old key is
+// decremented and the new one incremented. Nothing is kept per document, so memory is
+// one adder per key. Writes that bypass the events (updateFirst and the like), deletes
+// by query and concurrent writes of one document can leave the counters off; the
+// scheduled reconcile recounts each category with one $group, publishes how far the
+// counters had drifted and replaces them. It also refreshes the $facet snapshot used
+// for the time-dependent figures.
+@Service
+@ConditionalOnProperty(name = "app.stats.backend", havingValue = "counters")
+public class StatisticsCounters extends AbstractMongoEventListener<Object> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsCounters.class);
+
+    public static final String APPOINTMENT_STATUS = "appointmentStatus";
+    public static final String VACCINATION_STATUS = "vaccinationStatus";
+    public static final String USER_ROLE = "userRole";
+    public static final String PET_SPECIES = "petSpecies";
+
+    private static final String UNKNOWN = "UNKNOWN";
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private StatisticsAggregations aggregations;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    private final Map<String, Category<?>> categories = new LinkedHashMap<>();
+    private final Map<Class<?>, Category<?>> categoriesByType = new ConcurrentHashMap<>();
+    private final ReentrantLock reconcileLock = new ReentrantLock();
+
+    private volatile Map<String, Object> petSnapshot = Map.of();
+    private volatile Map<String, Object> appointmentSnapshot = Map.of();
+    private volatile Map<String, Object> vaccinationSnapshot = Map.of();
+    private volatile boolean ready;
+
+    public StatisticsCounters(MeterRegistry meterRegistry) {
+        register(new Category<>(APPOINTMENT_STATUS, Appointment.class, "status", Appointment::getId,
+                appointment -> appointment.getStatus() == null ? null : appointment.getStatus().name()));
+        register(new Category<>(VACCINATION_STATUS, Vaccination.class, "status", Vaccination::getId,
+                vaccination -> vaccination.getStatus() == null ? null : vaccination.getStatus().name()));
+        register(new Category<>(USER_ROLE, User.class, "role", User::getId, User::getRole));
+        register(new Category<>(PET_SPECIES, Pet.class, "species", Pet::getId, Pet::getSpecies));
+
+        for (Category<?> category : categories.values()) {
+            Gauge.builder("stats.counters.drift", category.drift, AtomicLong::get)
+                    .description("Count the counters were off from the database by at the last reconcile")
+                    .tag("category", category.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        reconcile();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Live count per key, e.g. appointment status name -> count
+    public Map<String, Long> counts(String category) {
+        return categories.get(category).current.snapshot();
+    }
+
+    public long total(String category) {
+        return categories.get(category).current.total();
+    }
+
+    // Last reconcile's aggregation results, for figures that depend on the current time
+    public Map<String, Object> petSnapshot() {
+        return petSnapshot;
+    }
+
+    public Map<String, Object> appointmentSnapshot() {
+        return appointmentSnapshot;
+    }
+
+    public Map<String, Object> vaccinationSnapshot() {
+        return vaccinationSnapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.reconcileIntervalMs:300000}",
+            initialDelayString = "${app.stats.reconcileIntervalMs:300000}")
+    public void reconcile() {
+        if (!reconcileLock.tryLock()) {
+            return;
+        }
+        try {
+            for (Category<?> category : categories.values()) {
+                reconcile(category);
+            }
+            petSnapshot = aggregations.petStatistics();
+            appointmentSnapshot = aggregations.appointmentStatistics();
+            vaccinationSnapshot = aggregations.vaccinationStatistics();
+            ready = true;
+        } catch (RuntimeException ex) {
+            logger.error("Statistics counter reconcile failed", ex);
+        } finally {
+            reconcileLock.unlock();
+        }
+    }
+
+    @Override
+    public void onBeforeSave(BeforeSaveEvent<Object> event) {
+        Category<?> category = categoriesByType.get(event.getSource().getClass());
+        if (category != null) {
+            beforeSave(category, event.getSource());
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Category<?> category = categoriesByType.get(event.getSource().getClass());
+        if (category != null) {
+            category.afterSave(event.getSource());
+        }
+    }
+
+    @Override
+    public void onBeforeDelete(BeforeDeleteEvent<Object> event) {
+        Category<?> category = categoriesByType.get(event.getType());
+        if (category != null) {
+            MongoEvents.deletedIds(event).ifPresent(ids -> category.storedKeys.putAll(storedKeys(category, ids)));
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        Category<?> category = categoriesByType.get(event.getType());
+        if (category == null) {
+            return;
+        }
+        Optional<List<String>> ids = MongoEvents.deletedIds(event);
+        if (ids.isPresent()) {
+            ids.get().forEach(category::afterDelete);
+        } else {
+            scheduleReconcile(category);
+        }
+    }
+
+    // A document without an id is new, so there is no stored key to move it from
+    private <T> void beforeSave(Category<T> category, Object source) {
+        String id = category.id(category.type.cast(source));
+        if (id != null) {
+            category.storedKeys.putAll(storedKeys(category, List.of(id)));
+        }
+    }
+
+    // Key field of the given documents as stored, read by _id
+    private <T> Map<String, String> storedKeys(Category<T> category, Collection<String> ids) {
+        Query query = new Query(where("_id").in(ids));
+        query.fields().include(category.field);
+        Map<String, String> keys = new HashMap<>();
+        for (T document : mongoTemplate.find(query, category.type)) {
+            keys.put(category.id(document), category.key(document));
+        }
+        return keys;
+    }
+
+    // A delete by arbitrary query removes unknown documents, so the category is
+    // reconciled off the request thread; deletes arriving before it starts share it
+    private void scheduleReconcile(Category<?> category) {
+        if (!category.reconcilePending.compareAndSet(false, true)) {
+            return;
+        }
+        taskScheduler.schedule(() -> {
+            category.reconcilePending.set(false);
+            reconcileLock.lock();
+            try {
+                reconcile(category);
+            } catch (RuntimeException ex) {
+                logger.error("Statistics counter reconcile of {} failed", category.name, ex);
+            } finally {
+                reconcileLock.unlock();
+            }
+        }, Instant.now());
+    }
+
+    private void register(Category<?> category) {
+        categories.put(category.name, category);
+        categoriesByType.put(category.type, category);
+    }
+
+    // Writes landing while the $group runs may be counted twice or not at all; the
+    // next reconcile settles them
+    private <T> void reconcile(Category<T> category) {
+        Counts rebuilt = new Counts();
+        mongoTemplate.aggregate(newAggregation(group(category.field).count().as("count")),
+                        category.type, Document.class)
+                .forEach(row -> rebuilt.add(row.get("_id") == null ? UNKNOWN : row.get("_id").toString(),
+                        ((Number) row.get("count")).longValue()));
+
+        long drift = category.current.distanceTo(rebuilt);
+        category.current = rebuilt;
+        // Drops keys left by writes that failed after their before event
+        category.storedKeys.clear();
+        category.drift.set(drift);
+        if (drift > 0 && ready) {
+            logger.warn("Statistics counters for {} drifted from the database by {}", category.name, drift);
+        }
+    }
+
+    private static final class Category<T> {
+        private final String name;
+        private final Class<T> type;
+        private final String field;
+        private final Function<T, String> idFunction;
+        private final Function<T, String> keyFunction;
+        private final AtomicLong drift = new AtomicLong();
+        private final AtomicBoolean reconcilePending = new AtomicBoolean();
+        private volatile Counts current = new Counts();
+
+        // Stored key of each document with a save or delete in flight, from the
+        // before event to the after event of that write
+        private final ConcurrentHashMap<String, String> storedKeys = new ConcurrentHashMap<>();
+
+        private Category(String name, Class<T> type, String field,
+                         Function<T, String> idFunction, Function<T, String> keyFunction) {
+            this.name = name;
+            this.type = type;
+            this.field = field;
+            this.idFunction = idFunction;
+            this.keyFunction = keyFunction;
+        }
+
+        private String id(T document) {
+            return idFunction.apply(document);
+        }
+
+        private String key(T document) {
+            String key = keyFunction.apply(document);
+            return key == null ? UNKNOWN : key;
+        }
+
+        private void afterSave(Object source) {
+            T document = type.cast(source);
+            String id = id(document);
+            if (id == null) {
+                return;
+            }
+            String previous = storedKeys.remove(id);
+            String key = key(document);
+            if (!key.equals(previous)) {
+                Counts counts = current;
+                counts.add(key, 1);
+                if (previous != null) {
+                    counts.add(previous, -1);
+                }
+            }
+        }
+
+        private void afterDelete(String id) {
+            String previous = storedKeys.remove(id);
+            if (previous != null) {
+                current.add(previous, -1);
+            }
+        }
+    }
+
+    // A LongAdder per key; updates never lock once the key's adder exists
+    private static final class Counts {
+        private final ConcurrentHashMap<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private void add(String key, long delta) {
+            LongAdder adder = counts.get(key);
+            if (adder == null) {
+                adder = counts.computeIfAbsent(key, k -> new LongAdder());
+            }
+            adder.add(delta);
+        }
+
+        private Map<String, Long> snapshot() {
+            Map<String, Long> snapshot = new LinkedHashMap<>();
+            counts.forEach((key, adder) -> {
+                long value = adder.sum();
+                if (value != 0) {
+                    snapshot.put(key, value);
+                }
+            });
+            return snapshot;
+        }
+
+        private long total() {
+            long total = 0;
+            for (LongAdder adder : counts.values()) {
+                total += adder.sum();
+            }
+            return total;
+        }
+
+        // Sum of per-key count differences
+        private long distanceTo(Counts other) {
+            Set<String> keys = new HashSet<>(counts.keySet());
+            keys.addAll(other.counts.keySet());
+            long distance = 0;
+            for (String key : keys) {
+                distance += Math.abs(count(key) - other.count(key));
+            }
+            return distance;
+        }
+
+        private long count(String key) {
+            LongAdder adder = counts.get(key);
+            return adder == null ? 0 : adder.sum();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.petcare.service;
+
+import com.petcare.model.Appointment;
+import com.petcare.model.Vaccination;
+import com.petcare.util.CoalescingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Statistics for the /stats endpoints. The backend is chosen with app.stats.backend:
+// "aggregation" (default) runs the $facet pipelines behind a short-TTL cache that
+// coalesces concurrent requests, so polling dashboards cause at most one aggregation
+// per collection per interval; "counters" answers from StatisticsCounters in memory.
+@Service
+public class StatisticsService {
+
+    private static final String PETS = "pets";
+    private static final String APPOINTMENTS = "appointments";
+    private static final String VACCINATIONS = "vaccinations";
+
+    @Autowired
+    private StatisticsAggregations aggregations;
+
+    @Autowired
+    private ObjectProvider<StatisticsCounters> countersProvider;
+
+    @Value("${app.stats.cacheTtlMs:5000}")
+    private long cacheTtlMs;
+
+    private CoalescingCache<String, Map<String, Object>> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = new CoalescingCache<>(cacheTtlMs);
+    }
+
+    public Map<String, Object> getPetStatistics() {
+        StatisticsCounters counters = readyCounters();
+        if (counters == null) {
+            return cache.get(PETS, aggregations::petStatistics);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>(counters.petSnapshot());
+        stats.put("totalPets", counters.total(StatisticsCounters.PET_SPECIES));
+        stats.put("bySpecies", counters.counts(StatisticsCounters.PET_SPECIES));
+        stats.put("usersByRole", counters.counts(StatisticsCounters.USER_ROLE));
+        return stats;
+    }
+
+    public Map<String, Object> getAppointmentStatistics() {
+        StatisticsCounters counters = readyCounters();
+        if (counters == null) {
+            return cache.get(APPOINTMENTS, aggregations::appointmentStatistics);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>(counters.appointmentSnapshot());
+        stats.put("totalAppointments", counters.total(StatisticsCounters.APPOINTMENT_STATUS));
+        stats.put("byStatus", withAllConstants(counters.counts(StatisticsCounters.APPOINTMENT_STATUS),
+                Appointment.AppointmentStatus.class));
+        return stats;
+    }
+
+    public Map<String, Object> getVaccinationStatistics() {
+        StatisticsCounters counters = readyCounters();
+        if (counters == null) {
+            return cache.get(VACCINATIONS, aggregations::vaccinationStatistics);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>(counters.vaccinationSnapshot());
+        stats.put("totalVaccinations", counters.total(StatisticsCounters.VACCINATION_STATUS));
+        stats.put("byStatus", withAllConstants(counters.counts(StatisticsCounters.VACCINATION_STATUS),
+                Vaccination.VaccinationStatus.class));
+        return stats;
+    }
+
+    // Counters are used once their first reconcile has completed
+    private StatisticsCounters readyCounters() {
+        StatisticsCounters counters = countersProvider.getIfAvailable();
+        return counters != null && counters.isReady() ? counters : null;
+    }
+
+    private static <E extends Enum<E>> Map<String, Long> withAllConstants(Map<String, Long> counts, Class<E> type) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            result.put(constant.name(), 0L);
+        }
+        counts.forEach((key, count) -> result.merge(key, count, Long::sum));
+        return result;
+    }
+}
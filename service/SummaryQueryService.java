@@ -0,0 +1,71 @@
+package com.petcare.service;
+
+import com.petcare.model.User;
+import com.petcare.repository.AppointmentRepository;
+import com.petcare.repository.AppointmentSummary;
+import com.petcare.repository.MedicalHistoryRepository;
+import com.petcare.repository.MedicalHistorySummary;
+import com.petcare.repository.PetRepository;
+import com.petcare.repository.PetSummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Unpaged list queries returning summary projections (?view=summary). The
+// projections are closed interfaces, so Mongo only sends the summary fields.
+@Service
+public class SummaryQueryService {
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+
+    @Autowired
+    private MedicalHistoryRepository medicalHistoryRepository;
+
+    @Autowired
+    private UserCache userCache;
+
+    // Pets
+    public List<PetSummary> getPetsByOwnerId(String ownerId) {
+        return petRepository.findSummaryByOwnerId(ownerId);
+    }
+
+    public List<PetSummary> getPetsByUsername(String username) {
+        User owner = userCache.getByUsername(username);
+        return petRepository.findSummaryByOwnerId(owner.getId());
+    }
+
+    public List<PetSummary> getPetsBySpecies(String species) {
+        return petRepository.findSummaryBySpeciesIgnoreCase(species);
+    }
+
+    public List<PetSummary> getPetsByBreed(String breed) {
+        return petRepository.findSummaryByBreedIgnoreCase(breed);
+    }
+
+    // Appointments
+    public List<AppointmentSummary> getAppointmentsByOwnerId(String ownerId) {
+        return appointmentRepository.findSummaryByOwnerId(ownerId);
+    }
+
+    public List<AppointmentSummary> getAppointmentsByVetId(String vetId) {
+        return appointmentRepository.findSummaryByVetId(vetId);
+    }
+
+    public List<AppointmentSummary> getAppointmentsByPetId(String petId) {
+        return appointmentRepository.findSummaryByPetId(petId);
+    }
+
+    // Medical history
+    public List<MedicalHistorySummary> getMedicalHistoriesByPetId(String petId) {
+        return medicalHistoryRepository.findSummaryByPetId(petId);
+    }
+
+    public List<MedicalHistorySummary> getMedicalHistoriesByVetId(String vetId) {
+        return medicalHistoryRepository.findSummaryByVetId(vetId);
+    }
+}
@@ -0,0 +1,128 @@
+package com.petcare.service;
+
+import com.petcare.model.User;
+import com.petcare.repository.UserRepository;
+import com.petcare.util.BoundedTtlCache;
+import com.petcare.util.MongoEvents;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+
+// Read-through cache of users by username and by id for /api/auth/me, token
+// refresh and username resolution. Users are cached by id only; usernames map to
+// ids, which never change, and every lookup by username checks the name against
+// the cached user, so a rename or delete needs no second invalidation. Every save
+// of a user (password change or reset, role change, deactivation) and every delete
+// evicts it through Mongo events, and a load racing such an event for the same id
+// is not cached; the TTL bounds staleness from writes that bypass the repository.
+// When full, expired users go first, then the least recently used.
+// Cached users are shared instances and must be treated as read-only.
+@Service
+public class UserCache extends AbstractMongoEventListener<User> {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final BoundedTtlCache<String, User> users;
+    private final BoundedTtlCache<String, String> userIds;
+    private final long ttlMillis;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public UserCache(MeterRegistry meterRegistry,
+                     @Value("${app.userCache.ttlMs:60000}") long ttlMillis,
+                     @Value("${app.userCache.maxEntries:10000}") int maxEntries) {
+        this.users = new BoundedTtlCache<>(maxEntries);
+        this.userIds = new BoundedTtlCache<>(maxEntries);
+        this.ttlMillis = ttlMillis;
+        this.hits = Counter.builder("users.cache.lookups")
+                .description("User cache lookups answered from memory or loaded from Mongo")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("users.cache.lookups")
+                .description("User cache lookups answered from memory or loaded from Mongo")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("users.cache.evictions")
+                .description("Users evicted from the cache because they were saved or deleted")
+                .register(meterRegistry);
+        Gauge.builder("users.cache.size", users, BoundedTtlCache::size)
+                .description("Users held by the user cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<User> findByUsername(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        String id = userIds.get(username);
+        if (id != null) {
+            Optional<User> user = findById(id);
+            if (user.isPresent() && username.equals(user.get().getUsername())) {
+                return user;
+            }
+            // Renamed or deleted since the id was cached
+            userIds.invalidate(username);
+        } else {
+            misses.increment();
+        }
+
+        // The user itself is only cached by findById, whose load is checked against
+        // events for its id; the id is safe to keep from any read
+        Optional<User> loaded = userRepository.findByUsername(username);
+        loaded.ifPresent(user -> userIds.put(username, user.getId(), Long.MAX_VALUE));
+        return loaded;
+    }
+
+    public Optional<User> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        User user = users.get(id);
+        if (user != null) {
+            hits.increment();
+            return Optional.of(user);
+        }
+        misses.increment();
+        return Optional.ofNullable(users.load(id, key -> userRepository.findById(key).orElse(null), ttlMillis));
+    }
+
+    public User getByUsername(String username) {
+        return findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        evict(event.getSource().getId());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        Optional<List<String>> ids = MongoEvents.deletedIds(event);
+        if (ids.isPresent()) {
+            ids.get().forEach(this::evict);
+        } else {
+            evictions.increment(users.size());
+            users.clear();
+            userIds.clear();
+        }
+    }
+
+    // For writes that bypass the repository and so publish no save event
+    public void evict(String id) {
+        if (id != null && users.invalidate(id) != null) {
+            evictions.increment();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.petcare.service;
+
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.repository.PetRepository;
+import com.petcare.repository.VaccinationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Vaccination reminders of an owner. The owner's pet ids come from one covered
+// query and their due vaccinations from one $in query on {petId, nextDueDate},
+// so an owner with many pets costs no more round trips than an owner with one.
+@Service
+public class VaccinationReminderService {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private VaccinationRepository vaccinationRepository;
+
+    @Value("${app.vaccinations.reminderWindowDays:30}")
+    private int reminderWindowDays;
+
+    // Vaccinations due within the reminder window, including overdue ones, soonest first
+    public List<Vaccination> getRemindersByOwner(String username) {
+        User owner = userCache.getByUsername(username);
+
+        List<String> petIds = petRepository.findIdsByOwnerId(owner.getId()).stream()
+                .map(Pet::getId)
+                .toList();
+        if (petIds.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDate dueBefore = LocalDate.now().plusDays(reminderWindowDays);
+        return vaccinationRepository.findDueByPetIdIn(petIds, dueBefore).stream()
+                .filter(vaccination -> vaccination.getStatus() != Vaccination.VaccinationStatus.CANCELLED)
+                .toList();
+    }
+}
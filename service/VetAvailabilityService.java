@@ -0,0 +1,408 @@
+package com.petcare.service;
+
+import com.petcare.dto.TimeSlot;
+import com.petcare.model.Appointment;
+import com.petcare.model.Vet;
+import com.petcare.util.MongoEvents;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// Interval index of the booked [appointmentDateTime, +durationMinutes) ranges of
+// every vet, loaded from today onwards at startup and kept current from Mongo
+// save/delete events. Each vet's bookings are a set ordered by start, so a day or
+// any other range is a sub-set and an overlap check is one O(log n) seek plus the
+// few bookings that can still reach into the range. The index answers availability
+// and rejects obvious conflicts; the authoritative check for a new booking runs in
+// Mongo under a per-vet lease document (vet_booking_leases), which serializes the
+// check-then-insert of one vet's bookings across all application instances.
+@Service
+public class VetAvailabilityService extends AbstractMongoEventListener<Appointment> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VetAvailabilityService.class);
+
+    private static final Pattern WORKING_HOURS = Pattern.compile("(\\d{1,2}):(\\d{2})\\s*-\\s*(\\d{1,2}):(\\d{2})");
+
+    private static final String LEASES = "vet_booking_leases";
+    private static final String HOLD_PREFIX = "hold:";
+    private static final long LEASE_RETRY_MILLIS = 25;
+
+    private static final Comparator<Booking> BY_START = Comparator
+            .comparing((Booking booking) -> booking.start)
+            .thenComparing(booking -> booking.id);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private VetDirectory vetDirectory;
+
+    @Value("${app.availability.dayStart:09:00}")
+    private String defaultDayStart;
+
+    @Value("${app.availability.dayEnd:17:00}")
+    private String defaultDayEnd;
+
+    @Value("${app.availability.maxRangeDays:31}")
+    private int maxRangeDays;
+
+    // Bounds how far back the Mongo overlap check looks for a booking still running
+    @Value("${app.availability.maxDurationMinutes:1440}")
+    private int maxDurationMinutes;
+
+    // A lease must outlive the save it guards; an expired one is free to take
+    @Value("${app.availability.leaseMs:10000}")
+    private long leaseMillis;
+
+    @Value("${app.availability.leaseWaitMs:2000}")
+    private long leaseWaitMillis;
+
+    // All state is guarded by the lock; every operation is an in-memory seek
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, NavigableSet<Booking>> bookingsByVet = new HashMap<>();
+    private final Map<String, Booking> bookingsById = new HashMap<>();
+
+    // Longest booking indexed, so a seek from (start - longest) finds every overlap
+    private long longestMinutes;
+
+    @PostConstruct
+    public void rebuild() {
+        lock.lock();
+        try {
+            // Holds of in-flight bookings have no document yet, so they survive the reload
+            List<Booking> holds = bookingsById.values().stream()
+                    .filter(booking -> booking.id.startsWith(HOLD_PREFIX))
+                    .toList();
+            bookingsByVet.clear();
+            bookingsById.clear();
+            longestMinutes = 0;
+            holds.forEach(this::add);
+
+            Query query = new Query(where("appointmentDateTime").gte(LocalDate.now().atStartOfDay())
+                    .and("status").ne(Appointment.AppointmentStatus.CANCELLED));
+            query.fields().include("vetId", "appointmentDateTime", "durationMinutes", "status");
+            try (Stream<Appointment> appointments = mongoTemplate.stream(query, Appointment.class)) {
+                appointments.forEach(this::index);
+            }
+            logger.info("Vet availability index built with {} bookings", bookingsById.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reserves the range until release, so two concurrent bookings of the same slot
+    // cannot both pass, on this instance or any other. Returns the hold id, or null
+    // when the range overlaps a booking other than the appointment being rescheduled
+    // (excludeAppointmentId, its stored id; may be null) or the vet's lease stays
+    // taken for app.availability.leaseWaitMs.
+    public String hold(String vetId, LocalDateTime start, int durationMinutes, String excludeAppointmentId) {
+        if (durationMinutes > maxDurationMinutes) {
+            throw new IllegalArgumentException("An appointment can last at most " + maxDurationMinutes + " minutes");
+        }
+        LocalDateTime end = start.plusMinutes(Math.max(durationMinutes, 1));
+        lock.lock();
+        try {
+            if (conflicts(overlapping(vetId, start, end), excludeAppointmentId)) {
+                return null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        String holdId = HOLD_PREFIX + UUID.randomUUID();
+        if (!acquireLease(vetId, holdId)) {
+            return null;
+        }
+        boolean booked;
+        try {
+            booked = bookedInMongo(vetId, start, end, excludeAppointmentId);
+        } catch (RuntimeException ex) {
+            releaseLease(holdId);
+            throw ex;
+        }
+        if (booked) {
+            releaseLease(holdId);
+            return null;
+        }
+        lock.lock();
+        try {
+            add(new Booking(holdId, vetId, start, end));
+        } finally {
+            lock.unlock();
+        }
+        return holdId;
+    }
+
+    // Drops a hold once the appointment is saved (its own booking replaces it) or failed
+    public void release(String holdId) {
+        if (holdId == null) {
+            return;
+        }
+        lock.lock();
+        try {
+            remove(holdId);
+        } finally {
+            lock.unlock();
+        }
+        releaseLease(holdId);
+    }
+
+    // Open slots of at least minMinutes inside the vet's working hours
+    public List<TimeSlot> getAvailability(String vetId, LocalDateTime from, LocalDateTime to, int minMinutes) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (from.plusDays(maxRangeDays).isBefore(to)) {
+            throw new IllegalArgumentException("Availability can be queried for at most " + maxRangeDays + " days");
+        }
+        Vet vet = vetDirectory.getVetById(vetId)
+                .orElseThrow(() -> new RuntimeException("Vet not found: " + vetId));
+
+        LocalTime[] hours = workingHours(vet);
+        List<TimeSlot> slots = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); !day.isAfter(to.toLocalDate()); day = day.plusDays(1)) {
+            if (!worksOn(vet, day.getDayOfWeek())) {
+                continue;
+            }
+            LocalDateTime open = max(from, day.atTime(hours[0]));
+            LocalDateTime close = min(to, day.atTime(hours[1]));
+            if (open.isBefore(close)) {
+                addOpenSlots(slots, vetId, open, close, minMinutes);
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Appointment> event) {
+        lock.lock();
+        try {
+            remove(event.getSource().getId());
+            index(event.getSource());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Appointment> event) {
+        Optional<List<String>> ids = MongoEvents.deletedIds(event);
+        if (ids.isPresent()) {
+            lock.lock();
+            try {
+                ids.get().forEach(this::remove);
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            rebuild();
+        }
+    }
+
+    private static boolean conflicts(List<Booking> bookings, String excludeAppointmentId) {
+        return bookings.stream().anyMatch(booking -> !booking.id.equals(excludeAppointmentId));
+    }
+
+    // Takes the vet's lease: the upsert only matches an expired lease, so while another
+    // booking holds it the insert of a second lease document fails on the _id
+    private boolean acquireLease(String vetId, String holdId) {
+        long deadline = System.currentTimeMillis() + leaseWaitMillis;
+        while (true) {
+            long now = System.currentTimeMillis();
+            Query expired = new Query(where("_id").is(vetId).and("expiresAt").lt(new Date(now)));
+            Update take = new Update().set("holder", holdId).set("expiresAt", new Date(now + leaseMillis));
+            try {
+                mongoTemplate.upsert(expired, take, LEASES);
+                return true;
+            } catch (DuplicateKeyException ex) {
+                if (now >= deadline) {
+                    return false;
+                }
+            }
+            try {
+                Thread.sleep(LEASE_RETRY_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    // Leases are one document per vet and only exist while a booking is in flight
+    private void releaseLease(String holdId) {
+        mongoTemplate.remove(new Query(where("holder").is(holdId)), LEASES);
+    }
+
+    // Bookings of the vet in Mongo intersecting [start, end), including those saved by
+    // other instances; only appointments starting up to maxDurationMinutes earlier can reach in
+    private boolean bookedInMongo(String vetId, LocalDateTime start, LocalDateTime end, String excludeAppointmentId) {
+        Query query = new Query(where("vetId").is(vetId)
+                .and("appointmentDateTime").gte(start.minusMinutes(maxDurationMinutes)).lt(end)
+                .and("status").ne(Appointment.AppointmentStatus.CANCELLED));
+        query.fields().include("appointmentDateTime", "durationMinutes");
+        return mongoTemplate.find(query, Appointment.class).stream()
+                .filter(appointment -> !appointment.getId().equals(excludeAppointmentId))
+                .anyMatch(appointment -> appointment.getAppointmentDateTime()
+                        .plusMinutes(Math.max(appointment.getDurationMinutes(), 1)).isAfter(start));
+    }
+
+    private void addOpenSlots(List<TimeSlot> slots, String vetId, LocalDateTime open, LocalDateTime close,
+                              int minMinutes) {
+        List<Booking> booked;
+        lock.lock();
+        try {
+            booked = overlapping(vetId, open, close);
+        } finally {
+            lock.unlock();
+        }
+
+        LocalDateTime cursor = open;
+        for (Booking booking : booked) {
+            if (booking.start.isAfter(cursor)) {
+                addSlot(slots, cursor, min(booking.start, close), minMinutes);
+            }
+            cursor = max(cursor, booking.end);
+            if (!cursor.isBefore(close)) {
+                return;
+            }
+        }
+        addSlot(slots, cursor, close, minMinutes);
+    }
+
+    private static void addSlot(List<TimeSlot> slots, LocalDateTime start, LocalDateTime end, int minMinutes) {
+        if (!start.plusMinutes(minMinutes).isAfter(end)) {
+            slots.add(new TimeSlot(start, end));
+        }
+    }
+
+    // Bookings of the vet intersecting [start, end), ordered by start. Caller holds the lock.
+    private List<Booking> overlapping(String vetId, LocalDateTime start, LocalDateTime end) {
+        NavigableSet<Booking> bookings = bookingsByVet.get(vetId);
+        if (bookings == null) {
+            return List.of();
+        }
+        List<Booking> result = new ArrayList<>();
+        Booking from = probe(start.minusMinutes(longestMinutes));
+        for (Booking booking : bookings.subSet(from, true, probe(end), false)) {
+            if (booking.end.isAfter(start)) {
+                result.add(booking);
+            }
+        }
+        return result;
+    }
+
+    private void index(Appointment appointment) {
+        if (appointment.getId() == null || appointment.getVetId() == null
+                || appointment.getAppointmentDateTime() == null
+                || appointment.getStatus() == Appointment.AppointmentStatus.CANCELLED) {
+            return;
+        }
+        LocalDateTime start = appointment.getAppointmentDateTime();
+        add(new Booking(appointment.getId(), appointment.getVetId(), start,
+                start.plusMinutes(Math.max(appointment.getDurationMinutes(), 1))));
+    }
+
+    private void add(Booking booking) {
+        bookingsByVet.computeIfAbsent(booking.vetId, vetId -> new TreeSet<>(BY_START)).add(booking);
+        bookingsById.put(booking.id, booking);
+        longestMinutes = Math.max(longestMinutes, Duration.between(booking.start, booking.end).toMinutes());
+    }
+
+    private void remove(String id) {
+        Booking booking = id == null ? null : bookingsById.remove(id);
+        if (booking == null) {
+            return;
+        }
+        NavigableSet<Booking> bookings = bookingsByVet.get(booking.vetId);
+        bookings.remove(booking);
+        if (bookings.isEmpty()) {
+            bookingsByVet.remove(booking.vetId);
+        }
+    }
+
+    // Vet.workingHours as "HH:mm-HH:mm", otherwise the configured default day
+    private LocalTime[] workingHours(Vet vet) {
+        if (vet.getWorkingHours() != null) {
+            Matcher matcher = WORKING_HOURS.matcher(vet.getWorkingHours());
+            if (matcher.find()) {
+                LocalTime start = LocalTime.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+                LocalTime end = LocalTime.of(Integer.parseInt(matcher.group(3)), Integer.parseInt(matcher.group(4)));
+                if (start.isBefore(end)) {
+                    return new LocalTime[] {start, end};
+                }
+            }
+        }
+        return new LocalTime[] {LocalTime.parse(defaultDayStart), LocalTime.parse(defaultDayEnd)};
+    }
+
+    // Vet.availableDays as day names or their first three letters; no list means every day
+    private static boolean worksOn(Vet vet, DayOfWeek dayOfWeek) {
+        if (vet.getAvailableDays() == null || vet.getAvailableDays().isEmpty()) {
+            return true;
+        }
+        String name = dayOfWeek.name();
+        return vet.getAvailableDays().stream()
+                .map(day -> day.trim().toUpperCase(Locale.ROOT))
+                .anyMatch(day -> day.length() >= 3 && name.startsWith(day));
+    }
+
+    // Sorts before every real booking with the same start
+    private static Booking probe(LocalDateTime time) {
+        return new Booking("", null, time, time);
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime max(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private static final class Booking {
+        private final String id; // appointment id, or "hold:..." for an in-flight booking
+        private final String vetId;
+        private final LocalDateTime start;
+        private final LocalDateTime end; // exclusive
+
+        private Booking(String id, String vetId, LocalDateTime start, LocalDateTime end) {
+            this.id = id;
+            this.vetId = vetId;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.petcare.service;
+
+import com.petcare.model.Vet;
+import com.petcare.util.MongoEvents;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// In-memory copy of the vet directory, loaded at startup and kept current from Mongo
+// save/delete events, so creating, updating or deleting a vet is visible at once.
+// Reads use an immutable snapshot with hash indexes by id, userId, specialization and
+// clinic name (both case-insensitive) and never touch Mongo; writes swap in a new
+// snapshot. Vets change rarely, so rebuilding the snapshot per write is cheap.
+@Service
+public class VetDirectory extends AbstractMongoEventListener<Vet> {
+
+    private static final Logger logger = LoggerFactory.getLogger(VetDirectory.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong drift = new AtomicLong();
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+
+    // Gauges are registered after construction, so no gauge sees a half-built directory
+    @PostConstruct
+    public void init() {
+        Gauge.builder("vets.directory.size", this, directory -> directory.snapshot.byId.size())
+                .description("Vets held by the in-memory vet directory")
+                .register(meterRegistry);
+        Gauge.builder("vets.directory.drift", drift, AtomicLong::get)
+                .description("Vets the directory disagreed with the database on at the last consistency check")
+                .register(meterRegistry);
+        reload();
+    }
+
+    public int reload() {
+        writeLock.lock();
+        try {
+            List<Vet> vets = mongoTemplate.find(new Query().with(Sort.by("id")), Vet.class);
+            snapshot = new Snapshot(vets);
+            logger.info("Vet directory loaded with {} vets", vets.size());
+            return vets.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<Vet> getAllVets() {
+        return List.copyOf(snapshot.byId.values());
+    }
+
+    public Optional<Vet> getVetById(String id) {
+        return Optional.ofNullable(id == null ? null : snapshot.byId.get(id));
+    }
+
+    public Optional<Vet> getVetByUserId(String userId) {
+        return Optional.ofNullable(userId == null ? null : snapshot.byUserId.get(userId));
+    }
+
+    public List<Vet> getVetsBySpecialization(String specialization) {
+        return snapshot.bySpecialization.getOrDefault(key(specialization), List.of());
+    }
+
+    public List<Vet> getVetsByClinicName(String clinicName) {
+        return snapshot.byClinicName.getOrDefault(key(clinicName), List.of());
+    }
+
+    @Scheduled(fixedDelayString = "${app.vets.directory.checkIntervalMs:600000}",
+            initialDelayString = "${app.vets.directory.checkIntervalMs:600000}")
+    public void scheduledConsistencyCheck() {
+        checkConsistency();
+    }
+
+    // Compares the directory with the vets collection on the indexed fields and
+    // updatedAt. A directory that has drifted is reloaded.
+    public Map<String, Object> checkConsistency() {
+        Map<String, Vet> cached = snapshot.byId;
+        Set<String> seen = new HashSet<>();
+        int missing = 0;
+        int stale = 0;
+
+        Query query = new Query();
+        query.fields().include("userId", "specialization", "clinicName", "updatedAt");
+        try (Stream<Vet> stored = mongoTemplate.stream(query, Vet.class)) {
+            for (Vet vet : (Iterable<Vet>) stored::iterator) {
+                seen.add(vet.getId());
+                Vet copy = cached.get(vet.getId());
+                if (copy == null) {
+                    missing++;
+                } else if (!sameIndexedFields(copy, vet)) {
+                    stale++;
+                }
+            }
+        }
+        int unexpected = (int) cached.keySet().stream().filter(id -> !seen.contains(id)).count();
+
+        long total = missing + stale + unexpected;
+        drift.set(total);
+        if (total > 0) {
+            logger.warn("Vet directory drifted from the database ({} missing, {} stale, {} unexpected), reloading",
+                    missing, stale, unexpected);
+            reload();
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("consistent", total == 0);
+        report.put("cached", cached.size());
+        report.put("stored", seen.size());
+        report.put("missing", missing);
+        report.put("stale", stale);
+        report.put("unexpected", unexpected);
+        return report;
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Vet> event) {
+        Vet vet = event.getSource();
+        if (vet.getId() == null) {
+            return;
+        }
+        update(vets -> vets.put(vet.getId(), vet));
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Vet> event) {
+        Optional<List<String>> ids = MongoEvents.deletedIds(event);
+        if (ids.isPresent()) {
+            update(vets -> ids.get().forEach(vets::remove));
+        } else {
+            reload();
+        }
+    }
+
+    private void update(Consumer<Map<String, Vet>> change) {
+        writeLock.lock();
+        try {
+            Map<String, Vet> vets = new TreeMap<>(snapshot.byId);
+            change.accept(vets);
+            snapshot = new Snapshot(vets.values());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static boolean sameIndexedFields(Vet cached, Vet stored) {
+        return Objects.equals(cached.getUserId(), stored.getUserId())
+                && Objects.equals(key(cached.getSpecialization()), key(stored.getSpecialization()))
+                && Objects.equals(key(cached.getClinicName()), key(stored.getClinicName()))
+                && Objects.equals(millis(cached.getUpdatedAt()), millis(stored.getUpdatedAt()));
+    }
+
+    // Mongo stores dates with millisecond precision
+    private static LocalDateTime millis(LocalDateTime value) {
+        return value == null ? null : value.truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Vets are kept in _id order, matching the order of the unpaged Mongo queries
+    private static final class Snapshot {
+        private final Map<String, Vet> byId = new LinkedHashMap<>();
+        private final Map<String, Vet> byUserId = new HashMap<>();
+        private final Map<String, List<Vet>> bySpecialization = new HashMap<>();
+        private final Map<String, List<Vet>> byClinicName = new HashMap<>();
+
+        private Snapshot(Collection<Vet> vets) {
+            Map<String, List<Vet>> specializations = new HashMap<>();
+            Map<String, List<Vet>> clinics = new HashMap<>();
+            for (Vet vet : vets) {
+                byId.put(vet.getId(), vet);
+                if (vet.getUserId() != null) {
+                    byUserId.put(vet.getUserId(), vet);
+                }
+                if (vet.getSpecialization() != null) {
+                    specializations.computeIfAbsent(key(vet.getSpecialization()), k -> new ArrayList<>()).add(vet);
+                }
+                if (vet.getClinicName() != null) {
+                    clinics.computeIfAbsent(key(vet.getClinicName()), k -> new ArrayList<>()).add(vet);
+                }
+            }
+            specializations.forEach((key, list) -> bySpecialization.put(key, List.copyOf(list)));
+            clinics.forEach((key, list) -> byClinicName.put(key, List.copyOf(list)));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.petcare.config;
+
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.service.UserCache;
+import com.petcare.service.VaccinationReminderService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// N+1 check: counts the Mongo commands of a code path with MongoCommandBudget and
+// fails when they exceed the path's budget or grow with the amount of data
+@DataMongoTest(properties = "app.mongo.commandBudget.enabled=true")
+@Import({MongoConfig.class, MongoCommandBudget.class, UserCache.class, VaccinationReminderService.class,
+        MongoCommandBudgetTest.Meters.class})
+@Testcontainers
+class MongoCommandBudgetTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @TestConfiguration
+    static class Meters {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MongoCommandBudget commandBudget;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private VaccinationReminderService vaccinationReminderService;
+
+    @Test
+    void ownerRemindersDoNotQueryPerPet() {
+        seedOwner("one-pet-owner", 1);
+        seedOwner("many-pet-owner", 25);
+
+        // user lookup, the owner's pet ids, one $in over their vaccinations
+        Map<String, Integer> onePet = commandBudget.count(
+                () -> vaccinationReminderService.getRemindersByOwner("one-pet-owner"));
+        Map<String, Integer> manyPets = commandBudget.count(
+                () -> vaccinationReminderService.getRemindersByOwner("many-pet-owner"));
+
+        assertThat(total(manyPets)).as("commands for 25 pets: %s", manyPets).isLessThanOrEqualTo(3);
+        assertThat(total(manyPets)).as("commands for 25 pets vs 1 pet").isEqualTo(total(onePet));
+    }
+
+    private void seedOwner(String username, int pets) {
+        User owner = new User(username, "hash", username + "@example.com", "Test", "Owner");
+        owner.setRole("OWNER");
+        owner = mongoTemplate.insert(owner);
+        for (int i = 0; i < pets; i++) {
+            Pet pet = mongoTemplate.insert(new Pet("Pet " + i, "Dog", "Mixed", 3, owner.getId()));
+            Vaccination vaccination = new Vaccination(pet.getId(), "vet-1", "Rabies", LocalDate.now().minusYears(1));
+            vaccination.setStatus(Vaccination.VaccinationStatus.ADMINISTERED);
+            vaccination.setNextDueDate(LocalDate.now().plusDays(7));
+            mongoTemplate.insert(vaccination);
+        }
+    }
+
+    private static int total(Map<String, Integer> commands) {
+        return commands.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,69 @@
+package com.petcare.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.repository.Repository;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+// Runs every repository query against a Mongo with MongoConfig's indexes and fails
+// the build when one of them is planned without a usable index, or when a query
+// method declared on a repository interface was not run at all
+@DataMongoTest(properties = "app.mongo.verifyQueryPlans=true")
+@Import({MongoConfig.class, QueryPlanVerifier.class})
+@Testcontainers
+class QueryPlanVerifierTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @Test
+    void everyRepositoryQueryUsesAnIndex() throws ClassNotFoundException {
+        assertThatCode(queryPlanVerifier::verify).doesNotThrowAnyException();
+
+        Set<String> declared = declaredQueryMethods();
+        assertThat(declared).isNotEmpty();
+        assertThat(queryPlanVerifier.verifiedMethods()).containsAll(declared);
+    }
+
+    private static Set<String> declaredQueryMethods() throws ClassNotFoundException {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        Set<String> declared = new TreeSet<>();
+        for (BeanDefinition candidate : scanner.findCandidateComponents("com.petcare.repository")) {
+            Class<?> repository = Class.forName(candidate.getBeanClassName());
+            for (Method method : repository.getDeclaredMethods()) {
+                if (!method.isDefault() && !method.isSynthetic() && !Modifier.isStatic(method.getModifiers())) {
+                    declared.add(repository.getSimpleName() + "." + method.getName());
+                }
+            }
+        }
+        return declared;
+    }
+}
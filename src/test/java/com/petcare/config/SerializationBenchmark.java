@@ -0,0 +1,233 @@
+package com.petcare.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.petcare.model.Appointment;
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Pet;
+import com.petcare.model.User;
+import com.petcare.model.Vaccination;
+import com.petcare.model.Vet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+// Serialize and deserialize throughput of a 100-document list of each model in each
+// format the API negotiates. Mappers are built the way the application builds them:
+// Boot's builder with the Blackbird and ISO date modules from JacksonConfig and the
+// JSON, CBOR or Smile factory. json-untuned is JSON with only the builder's default
+// modules (reflective accessors, JavaTimeModule date formatting), the baseline the
+// tuning is measured against.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SerializationBenchmark {
+
+    private static final int DOCUMENTS = 100;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 250_000_000);
+
+    @Param({"Pet", "Vet", "Appointment", "Vaccination", "MedicalHistory", "User"})
+    private String model;
+
+    @Param({"json", "cbor", "smile", "json-untuned"})
+    private String format;
+
+    private ObjectMapper mapper;
+    private JavaType listType;
+    private List<?> documents;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = mapper(format);
+        switch (model) {
+            case "Pet" -> documents = documents(SerializationBenchmark::pet);
+            case "Vet" -> documents = documents(SerializationBenchmark::vet);
+            case "Appointment" -> documents = documents(SerializationBenchmark::appointment);
+            case "Vaccination" -> documents = documents(SerializationBenchmark::vaccination);
+            case "MedicalHistory" -> documents = documents(SerializationBenchmark::medicalHistory);
+            case "User" -> documents = documents(SerializationBenchmark::user);
+            default -> throw new IllegalArgumentException("Unknown model: " + model);
+        }
+        listType = mapper.getTypeFactory().constructCollectionType(List.class, documents.get(0).getClass());
+        encoded = mapper.writeValueAsBytes(documents);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(documents);
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return mapper.readValue(encoded, listType);
+    }
+
+    private static ObjectMapper mapper(String format) {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (!format.equals("json-untuned")) {
+            builder.modulesToInstall(new BlackbirdModule(), new JacksonConfig().isoDateModule());
+        }
+        return switch (format) {
+            case "json", "json-untuned" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("Unknown format: " + format);
+        };
+    }
+
+    private static <T> List<T> documents(IntFunction<T> factory) {
+        List<T> documents = new ArrayList<>(DOCUMENTS);
+        for (int i = 0; i < DOCUMENTS; i++) {
+            documents.add(factory.apply(i));
+        }
+        return documents;
+    }
+
+    private static String id(int i) {
+        return String.format("%024x", i);
+    }
+
+    private static Pet pet(int i) {
+        Pet pet = new Pet();
+        pet.setId(id(i));
+        pet.setName("Pet " + i);
+        pet.setSpecies("Dog");
+        pet.setBreed("Labrador Retriever");
+        pet.setAge(i % 15);
+        pet.setWeight(20.5 + i % 10);
+        pet.setColor("Black");
+        pet.setGender(i % 2 == 0 ? "Male" : "Female");
+        pet.setDateOfBirth(BASE.toLocalDate().minusDays(365L * (i % 15)));
+        pet.setOwnerId(id(i / 3));
+        pet.setMicrochipNumber("985" + (100000000000L + i));
+        pet.setNeutered(i % 3 == 0);
+        pet.setSpecialNotes("Allergic to chicken");
+        pet.setCreatedAt(BASE.minusDays(i));
+        pet.setUpdatedAt(BASE.plusMinutes(i));
+        return pet;
+    }
+
+    private static Vet vet(int i) {
+        Vet vet = new Vet();
+        vet.setId(id(i));
+        vet.setUserId(id(1000 + i));
+        vet.setLicenseNumber("VET-" + (10000 + i));
+        vet.setSpecialization("Surgery");
+        vet.setYearsOfExperience(i % 30);
+        vet.setClinicName("Riverside Animal Clinic");
+        vet.setClinicAddress(i + " Main Street, Springfield");
+        vet.setClinicPhoneNumber("+1555" + (1000000 + i));
+        vet.setAvailableDays(List.of("MONDAY", "TUESDAY", "THURSDAY", "FRIDAY"));
+        vet.setWorkingHours("09:00-17:00");
+        vet.setCreatedAt(BASE.minusDays(i));
+        vet.setUpdatedAt(BASE.plusMinutes(i));
+        return vet;
+    }
+
+    private static Appointment appointment(int i) {
+        Appointment appointment = new Appointment();
+        appointment.setId(id(i));
+        appointment.setPetId(id(i % 40));
+        appointment.setOwnerId(id(i % 13));
+        appointment.setVetId(id(i % 7));
+        appointment.setAppointmentDateTime(BASE.plusMinutes(30L * i));
+        appointment.setDurationMinutes(i % 4 == 0 ? 60 : 30);
+        appointment.setAppointmentType("Checkup");
+        appointment.setReason("Annual wellness exam");
+        appointment.setNotes("Bring previous vaccination records");
+        appointment.setStatus(Appointment.AppointmentStatus.values()[i % Appointment.AppointmentStatus.values().length]);
+        appointment.setPriority(Appointment.Priority.values()[i % Appointment.Priority.values().length]);
+        appointment.setCreatedAt(BASE.minusDays(i));
+        appointment.setUpdatedAt(BASE.plusMinutes(i));
+        return appointment;
+    }
+
+    private static Vaccination vaccination(int i) {
+        LocalDate scheduled = BASE.toLocalDate().plusDays(i);
+        Vaccination vaccination = new Vaccination();
+        vaccination.setId(id(i));
+        vaccination.setPetId(id(i % 40));
+        vaccination.setVetId(id(i % 7));
+        vaccination.setVaccineName("Rabies");
+        vaccination.setVaccineType("Core");
+        vaccination.setManufacturer("Zoetis");
+        vaccination.setBatchNumber("B" + (20240000 + i));
+        vaccination.setScheduledDate(scheduled);
+        vaccination.setAdministeredDate(scheduled);
+        vaccination.setNextDueDate(scheduled.plusYears(1));
+        vaccination.setExpiryDate(scheduled.plusYears(2));
+        vaccination.setDosage("1 ml");
+        vaccination.setAdministrationMethod("Subcutaneous");
+        vaccination.setNotes("No reaction observed");
+        vaccination.setSideEffects("None");
+        vaccination.setStatus(Vaccination.VaccinationStatus.values()[i % Vaccination.VaccinationStatus.values().length]);
+        vaccination.setCreatedAt(BASE.minusDays(i));
+        vaccination.setUpdatedAt(BASE.plusMinutes(i));
+        return vaccination;
+    }
+
+    private static MedicalHistory medicalHistory(int i) {
+        MedicalHistory history = new MedicalHistory();
+        history.setId(id(i));
+        history.setPetId(id(i % 40));
+        history.setVetId(id(i % 7));
+        history.setVisitDate(BASE.toLocalDate().minusDays(i));
+        history.setVisitReason("Limping on the left hind leg");
+        history.setDiagnosis("Mild sprain");
+        history.setTreatment("Rest and anti-inflammatory medication");
+        history.setPrescription("Carprofen 75 mg twice daily for 5 days");
+        history.setSymptoms(List.of("limping", "swelling", "reduced appetite"));
+        history.setNotes("Re-check in two weeks");
+        history.setWeight(24.3 + i % 5);
+        history.setTemperature(38.6);
+        history.setBloodPressure("120/80");
+        history.setHeartRate("90");
+        history.setAttachments(List.of("xray-" + i + ".png"));
+        history.setCreatedAt(BASE.minusDays(i));
+        history.setUpdatedAt(BASE.plusMinutes(i));
+        return history;
+    }
+
+    private static User user(int i) {
+        User user = new User();
+        user.setId(id(i));
+        user.setUsername("user" + i);
+        user.setPassword("$2a$12$abcdefghijklmnopqrstuuS2gBIpZoKJ1u3hYOmPqF1Vb1wYn5xIq");
+        user.setEmail("user" + i + "@example.com");
+        user.setFirstName("First" + i);
+        user.setLastName("Last" + i);
+        user.setPhoneNumber("+1555" + (2000000 + i));
+        user.setAddress(i + " Oak Avenue, Springfield");
+        user.setRole("OWNER");
+        user.setActive(true);
+        user.setCreatedAt(BASE.minusDays(i));
+        user.setUpdatedAt(BASE.plusMinutes(i));
+        user.setLastLogin(BASE.plusHours(i));
+        return user;
+    }
+}
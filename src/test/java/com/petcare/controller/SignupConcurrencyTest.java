@@ -0,0 +1,114 @@
+package com.petcare.controller;
+
+import com.petcare.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Fires thousands of parallel signups at a real server and Mongo. The Bloom filter is
+// off, so every duplicate has to be caught by the unique indexes: each account must
+// be created exactly once, and every losing request must get the message of the index
+// it collided with, never a 500.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.signup.bloomFilterEnabled=false",
+        "app.security.bcrypt.minStrength=4",
+        "app.security.bcrypt.maxStrength=4"
+})
+@Testcontainers
+class SignupConcurrencyTest {
+
+    private static final int ACCOUNTS = 1000;
+    private static final int CLAIMS_PER_ACCOUNT = 4;
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void parallelSignupsCreateEveryAccountOnce() throws Exception {
+        // Every account is claimed by several identical requests at the same time
+        List<String> bodies = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            for (int c = 0; c < CLAIMS_PER_ACCOUNT; c++) {
+                bodies.add(signup("user" + i, "user" + i + "@example.com", "+1555" + i));
+            }
+        }
+        List<HttpResponse<String>> responses = post(bodies);
+
+        assertThat(responses).allMatch(response -> response.statusCode() == 200 || response.statusCode() == 400);
+        assertThat(responses).filteredOn(response -> response.statusCode() == 200).hasSize(ACCOUNTS);
+        assertThat(responses).filteredOn(response -> response.statusCode() == 400)
+                .extracting(HttpResponse::body)
+                .allMatch(body -> body.equals("Error: Username is already taken!")
+                        || body.equals("Error: Email is already in use!")
+                        || body.equals("Error: Phone number is already in use!"));
+        assertThat(mongoTemplate.count(new Query(), User.class)).isEqualTo(ACCOUNTS);
+
+        // Each request below collides with exactly one unique index, so the message is fixed
+        List<String> usernameTaken = new ArrayList<>();
+        List<String> emailTaken = new ArrayList<>();
+        List<String> phoneTaken = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            usernameTaken.add(signup("user" + i, "other" + i + "@example.com", null));
+            emailTaken.add(signup("email" + i, "user" + i + "@example.com", null));
+            phoneTaken.add(signup("phone" + i, "phone" + i + "@example.com", "+1555" + i));
+        }
+        assertThat(post(usernameTaken)).extracting(HttpResponse::body)
+                .containsOnly("Error: Username is already taken!");
+        assertThat(post(emailTaken)).extracting(HttpResponse::body)
+                .containsOnly("Error: Email is already in use!");
+        assertThat(post(phoneTaken)).extracting(HttpResponse::body)
+                .containsOnly("Error: Phone number is already in use!");
+    }
+
+    private List<HttpResponse<String>> post(List<String> bodies) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder().executor(executor).build();
+            URI uri = URI.create("http://localhost:" + port + "/api/auth/signup");
+            List<CompletableFuture<HttpResponse<String>>> futures = new ArrayList<>();
+            for (String body : bodies) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+                futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            List<HttpResponse<String>> responses = new ArrayList<>();
+            for (CompletableFuture<HttpResponse<String>> future : futures) {
+                responses.add(future.get());
+            }
+            return responses;
+        }
+    }
+
+    private static String signup(String username, String email, String phoneNumber) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"password123\""
+                + ",\"firstName\":\"First\",\"lastName\":\"Last\""
+                + (phoneNumber == null ? "" : ",\"phoneNumber\":\"" + phoneNumber + "\"") + "}";
+    }
+}
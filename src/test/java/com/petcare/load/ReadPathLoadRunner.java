@@ -0,0 +1,148 @@
+package com.petcare.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+// Load test of the read-heavy endpoints, servlet stack against the reactive read path.
+// Start the application with the "reactive" profile, then run
+//
+//   mvn exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.petcare.load.ReadPathLoadRunner \
+//       -Dexec.args="http://localhost:8080 <vet JWT> 5000 60"
+//
+// Every endpoint is loaded twice with the given number of concurrent connections (each
+// a virtual thread sending requests back to back for the given seconds): once with
+// Accept: application/json, answered by the blocking controllers on Tomcat's request
+// threads, and once with Accept: application/x-ndjson, answered by ReactiveReadController
+// from the reactive driver. Prints throughput, p50 and p99 per endpoint and stack.
+// Tomcat's server.tomcat.max-connections (8192 by default) must stay above the
+// connection count.
+public final class ReadPathLoadRunner {
+
+    private static final List<String> PATHS = List.of(
+            "/api/pets",
+            "/api/vets",
+            "/api/vaccinations/upcoming",
+            "/api/vaccinations/overdue",
+            "/api/appointments/today");
+
+    private static final String SERVLET = "application/json";
+    private static final String REACTIVE = "application/x-ndjson";
+
+    private ReadPathLoadRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: ReadPathLoadRunner <base url> <bearer token> [connections] [seconds]");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        String token = args[1];
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 60;
+
+        System.out.printf("%-30s %-22s %12s %10s %10s %8s%n", "endpoint", "accept", "req/s", "p50 ms", "p99 ms", "errors");
+        for (String path : PATHS) {
+            for (String accept : List.of(SERVLET, REACTIVE)) {
+                Result result = run(URI.create(baseUrl + path), accept, token, connections, Duration.ofSeconds(seconds));
+                System.out.printf("%-30s %-22s %12.1f %10.1f %10.1f %8d%n", path, accept,
+                        result.throughput(), result.percentileMillis(50), result.percentileMillis(99), result.errors);
+            }
+        }
+    }
+
+    private static Result run(URI uri, String accept, String token, int connections, Duration duration)
+            throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Accept", accept)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        LongAdder errors = new LongAdder();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // HTTP/1.1 keeps one request per connection in flight, so each worker is one connection
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executor)
+                    .build();
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<long[]>> workers = new ArrayList<>();
+            for (int i = 0; i < connections; i++) {
+                workers.add(executor.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.increment();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            List<long[]> perWorker = new ArrayList<>();
+            for (Future<long[]> worker : workers) {
+                perWorker.add(worker.get());
+            }
+            return new Result(merge(perWorker), duration, errors.sum());
+        }
+    }
+
+    private static long[] merge(List<long[]> perWorker) {
+        long[] all = new long[perWorker.stream().mapToInt(latencies -> latencies.length).sum()];
+        int offset = 0;
+        for (long[] latencies : perWorker) {
+            System.arraycopy(latencies, 0, all, offset, latencies.length);
+            offset += latencies.length;
+        }
+        Arrays.sort(all);
+        return all;
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final Duration duration;
+        private final long errors;
+
+        private Result(long[] sortedLatencies, Duration duration, long errors) {
+            this.sortedLatencies = sortedLatencies;
+            this.duration = duration;
+            this.errors = errors;
+        }
+
+        private double throughput() {
+            return sortedLatencies.length / (duration.toMillis() / 1000.0);
+        }
+
+        private double percentileMillis(int percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
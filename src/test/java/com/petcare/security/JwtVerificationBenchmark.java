@@ -0,0 +1,94 @@
+package com.petcare.security;
+
+import com.petcare.model.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Authentication of one request: the path before VerifiedToken, which parsed the
+// token three times (validateToken, getUsernameFromJWT, getRolesFromJWT) and
+// rebuilt the key and parser for each parse, against verifyToken on a cache hit
+// (a client reusing its bearer token) and on a miss (tokens drawn from a pool four
+// times the cache size, so nearly every call verifies and the cache keeps evicting).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class JwtVerificationBenchmark {
+
+    // HS512 needs a key of at least 64 bytes
+    private static final String SECRET = "benchmarkSecretKeyForJWTTokenGenerationAndValidation1234567890abcdef";
+    private static final int CACHE_SIZE = 1024;
+    private static final int TOKEN_POOL = 4 * CACHE_SIZE;
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+    private String[] tokens;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationInMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "jwtCacheMaxSize", CACHE_SIZE);
+        tokenProvider.init();
+
+        token = tokenProvider.generateTokenFromUser(user(0));
+        tokens = new String[TOKEN_POOL];
+        for (int i = 0; i < TOKEN_POOL; i++) {
+            tokens[i] = tokenProvider.generateTokenFromUser(user(i));
+        }
+    }
+
+    @Benchmark
+    public void threeParsesPerRequest(Blackhole blackhole) {
+        blackhole.consume(parseAsBefore(token) != null);
+        blackhole.consume(parseAsBefore(token).getSubject());
+        blackhole.consume(parseAsBefore(token).get("roles"));
+    }
+
+    @Benchmark
+    public Object verifyCacheHit() {
+        return tokenProvider.verifyToken(token);
+    }
+
+    @Benchmark
+    public Object verifyCacheMiss() {
+        return tokenProvider.verifyToken(tokens[ThreadLocalRandom.current().nextInt(TOKEN_POOL)]);
+    }
+
+    private static Claims parseAsBefore(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    private static User user(int index) {
+        User user = new User();
+        user.setId(String.format("%024x", index));
+        user.setUsername("user" + index);
+        user.setRole("owner");
+        return user;
+    }
+}
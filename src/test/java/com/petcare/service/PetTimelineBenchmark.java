@@ -0,0 +1,140 @@
+package com.petcare.service;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.petcare.config.MongoConfig;
+import com.petcare.model.Appointment;
+import com.petcare.model.MedicalHistory;
+import com.petcare.model.Vaccination;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MongoDBContainer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+// First timeline page of a pet with a long history, against what clients did before:
+// three separate calls for the pet's appointments, vaccinations and medical history,
+// one after the other, merged on the client. Runs against a Mongo container with
+// MongoConfig's indexes; 200 other pets share the collections.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PetTimelineBenchmark {
+
+    private static final int PETS = 200;
+    private static final int APPOINTMENTS_PER_PET = 300;
+    private static final int VACCINATIONS_PER_PET = 60;
+    private static final int HISTORIES_PER_PET = 150;
+    private static final String PET_ID = String.format("%024x", 0);
+
+    private MongoDBContainer mongo;
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private ExecutorService fanOutExecutor;
+    private PetTimelineService timelineService;
+
+    @Setup
+    public void setUp() {
+        mongo = new MongoDBContainer("mongo:7.0");
+        mongo.start();
+        mongoClient = MongoClients.create(mongo.getConnectionString());
+        mongoTemplate = new MongoTemplate(mongoClient, "petcare");
+
+        MongoConfig mongoConfig = new MongoConfig();
+        ReflectionTestUtils.setField(mongoConfig, "mongoTemplate", mongoTemplate);
+        mongoConfig.createIndexes();
+
+        fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        timelineService = new PetTimelineService();
+        ReflectionTestUtils.setField(timelineService, "mongoTemplate", mongoTemplate);
+        ReflectionTestUtils.setField(timelineService, "fanOutExecutor", fanOutExecutor);
+        ReflectionTestUtils.setField(timelineService, "defaultPageSize", 50);
+        ReflectionTestUtils.setField(timelineService, "maxPageSize", 500);
+
+        LocalDateTime start = LocalDateTime.now().minusYears(5);
+        for (int p = 0; p < PETS; p++) {
+            String petId = String.format("%024x", p);
+            List<Appointment> appointments = new ArrayList<>();
+            for (int i = 0; i < APPOINTMENTS_PER_PET; i++) {
+                Appointment appointment = new Appointment();
+                appointment.setPetId(petId);
+                appointment.setAppointmentDateTime(start.plusDays(6L * i));
+                appointments.add(appointment);
+            }
+            List<Vaccination> vaccinations = new ArrayList<>();
+            for (int i = 0; i < VACCINATIONS_PER_PET; i++) {
+                Vaccination vaccination = new Vaccination();
+                vaccination.setPetId(petId);
+                vaccination.setVaccineName("Rabies");
+                vaccination.setScheduledDate(start.toLocalDate().plusDays(30L * i));
+                vaccinations.add(vaccination);
+            }
+            List<MedicalHistory> histories = new ArrayList<>();
+            for (int i = 0; i < HISTORIES_PER_PET; i++) {
+                MedicalHistory history = new MedicalHistory();
+                history.setPetId(petId);
+                history.setDiagnosis("Checkup");
+                history.setVisitDate(start.toLocalDate().plusDays(12L * i));
+                histories.add(history);
+            }
+            mongoTemplate.insertAll(appointments);
+            mongoTemplate.insertAll(vaccinations);
+            mongoTemplate.insertAll(histories);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        fanOutExecutor.shutdown();
+        mongoClient.close();
+        mongo.stop();
+    }
+
+    @Benchmark
+    public Object timelinePage() {
+        return timelineService.getTimeline(PET_ID, null, 50);
+    }
+
+    @Benchmark
+    public Object threeSeparateCalls() {
+        Query byPet = new Query(where("petId").is(PET_ID));
+        List<Object> events = new ArrayList<>();
+        events.addAll(mongoTemplate.find(byPet, Appointment.class));
+        events.addAll(mongoTemplate.find(byPet, Vaccination.class));
+        events.addAll(mongoTemplate.find(byPet, MedicalHistory.class));
+        events.sort((a, b) -> occurredAt(b).compareTo(occurredAt(a)));
+        return events.subList(0, 50);
+    }
+
+    private static LocalDateTime occurredAt(Object event) {
+        if (event instanceof Appointment appointment) {
+            return appointment.getAppointmentDateTime();
+        }
+        if (event instanceof Vaccination vaccination) {
+            return vaccination.getScheduledDate().atStartOfDay();
+        }
+        return ((MedicalHistory) event).getVisitDate().atStartOfDay();
+    }
+}
@@ -0,0 +1,127 @@
+package com.petcare.service;
+
+import com.petcare.model.Appointment;
+import com.petcare.model.Vet;
+import org.bson.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// 500 vets with a year of bookings (16 half-hour appointments per working day,
+// about 1.5M in total). Compares the interval index (one day and the 31-day
+// maximum range of open slots) with finding a vet's bookings for a day by scanning
+// all of them, which is what the index replaced.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VetAvailabilityBenchmark {
+
+    private static final int VETS = 500;
+    private static final int DAYS = 365;
+    private static final int BOOKINGS_PER_DAY = 16;
+
+    private final LocalDate firstDay = LocalDate.now().plusDays(1);
+
+    private VetAvailabilityService availability;
+    private Map<String, List<Appointment>> appointmentsByVet;
+
+    @Setup
+    public void setUp() {
+        Vet vet = new Vet();
+        vet.setWorkingHours("09:00-17:00");
+        VetDirectory vetDirectory = mock(VetDirectory.class);
+        when(vetDirectory.getVetById(anyString())).thenReturn(Optional.of(vet));
+
+        availability = new VetAvailabilityService();
+        ReflectionTestUtils.setField(availability, "vetDirectory", vetDirectory);
+        ReflectionTestUtils.setField(availability, "defaultDayStart", "09:00");
+        ReflectionTestUtils.setField(availability, "defaultDayEnd", "17:00");
+        ReflectionTestUtils.setField(availability, "maxRangeDays", 31);
+
+        appointmentsByVet = new HashMap<>();
+        int id = 0;
+        for (int v = 0; v < VETS; v++) {
+            String vetId = vetId(v);
+            List<Appointment> appointments = new ArrayList<>();
+            for (int d = 0; d < DAYS; d++) {
+                LocalDateTime opening = firstDay.plusDays(d).atTime(9, 0);
+                for (int b = 0; b < BOOKINGS_PER_DAY; b++) {
+                    Appointment appointment = new Appointment();
+                    appointment.setId(String.valueOf(id++));
+                    appointment.setVetId(vetId);
+                    appointment.setAppointmentDateTime(opening.plusMinutes(30L * b));
+                    appointment.setDurationMinutes(b % 4 == 0 ? 60 : 30);
+                    appointments.add(appointment);
+                    availability.onAfterSave(new AfterSaveEvent<>(appointment, new Document(), "appointments"));
+                }
+            }
+            appointmentsByVet.put(vetId, appointments);
+        }
+    }
+
+    @Benchmark
+    public Object dayAvailability() {
+        LocalDate day = randomDay();
+        return availability.getAvailability(randomVet(), day.atStartOfDay(), day.plusDays(1).atStartOfDay(), 30);
+    }
+
+    @Benchmark
+    public Object monthAvailability() {
+        LocalDate day = randomDay();
+        return availability.getAvailability(randomVet(), day.atStartOfDay(), day.plusDays(31).atStartOfDay(), 30);
+    }
+
+    @Benchmark
+    public Object dayBookingsByScan() {
+        LocalDateTime start = randomDay().atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        List<Appointment> day = new ArrayList<>();
+        for (Appointment appointment : appointmentsByVet.get(randomVet())) {
+            LocalDateTime from = appointment.getAppointmentDateTime();
+            if (from.isBefore(end) && from.plusMinutes(appointment.getDurationMinutes()).isAfter(start)) {
+                day.add(appointment);
+            }
+        }
+        day.sort(Comparator.comparing(Appointment::getAppointmentDateTime));
+        return day;
+    }
+
+    private String randomVet() {
+        return vetId(ThreadLocalRandom.current().nextInt(VETS));
+    }
+
+    private LocalDate randomDay() {
+        return firstDay.plusDays(ThreadLocalRandom.current().nextInt(DAYS - 31));
+    }
+
+    private static String vetId(int index) {
+        return String.format("%024x", index);
+    }
+}
@@ -0,0 +1,155 @@
+package com.petcare.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+// Size-bounded concurrent cache where every entry carries its own expiry time.
+// Reads are lock-free and only stamp the entry's last access; a marker parked by
+// load() reads as a miss. When the cache is full, one writer evicts a batch:
+// expired entries first, then the least recently used live entries until a tenth
+// of the capacity is free again, so the scan is paid once per maxSize/10 inserts
+// rather than on every insert.
+public class BoundedTtlCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean(false);
+    private final int maxSize;
+
+    public BoundedTtlCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (entry.expiresAtMillis <= now) {
+            entries.remove(key, entry);
+            return null;
+        }
+        entry.touch(now);
+        return entry.value;
+    }
+
+    // Returns the value the key held before, if any
+    public V put(K key, V value, long expiresAtMillis) {
+        long now = System.currentTimeMillis();
+        if (expiresAtMillis <= now) {
+            return valueOf(entries.remove(key));
+        }
+        return valueOf(insert(key, new Entry<>(value, expiresAtMillis, now), now));
+    }
+
+    // Loads the value of a key that missed and caches it for ttlMillis, unless the key
+    // was put, invalidated or cleared while the loader ran: the load first parks a
+    // marker under the key, any such write replaces or removes it, and the loaded
+    // value only ever takes the marker's place. Writes to other keys never discard
+    // the load. The loader runs outside any lock; null values are returned uncached.
+    public V load(K key, Function<? super K, ? extends V> loader, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Entry<V> marker = new Entry<>(null, Long.MAX_VALUE, now);
+        insert(key, marker, now);
+        V value = null;
+        try {
+            value = loader.apply(key);
+        } finally {
+            if (value == null) {
+                entries.remove(key, marker);
+            } else {
+                long loadedAt = System.currentTimeMillis();
+                entries.replace(key, marker, new Entry<>(value, loadedAt + ttlMillis, loadedAt));
+            }
+        }
+        return value;
+    }
+
+    // Returns the value the key held, if any
+    public V invalidate(K key) {
+        return valueOf(entries.remove(key));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Entry<V> insert(K key, Entry<V> entry, long now) {
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            evict(now);
+        }
+        return entries.put(key, entry);
+    }
+
+    // Markers of loads in flight hold no value
+    private static <V> V valueOf(Entry<V> entry) {
+        return entry == null ? null : entry.value;
+    }
+
+    private void evict(long now) {
+        // Only one thread pays for the scan; concurrent writers may overshoot slightly
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> entry.expiresAtMillis <= now);
+
+            int excess = entries.size() - maxSize + Math.max(1, maxSize / 10);
+            if (excess <= 0) {
+                return;
+            }
+            // Stamps are copied first: readers keep moving them while the batch is sorted
+            List<Candidate<K, V>> live = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> live.add(new Candidate<>(key, entry)));
+            live.sort(Comparator.comparingLong(candidate -> candidate.lastAccessMillis));
+            for (int i = 0; i < excess && i < live.size(); i++) {
+                // Skip entries replaced since the snapshot; they were just written
+                entries.remove(live.get(i).key, live.get(i).entry);
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Candidate<K, V> {
+        private final K key;
+        private final Entry<V> entry;
+        private final long lastAccessMillis;
+
+        private Candidate(K key, Entry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccessMillis = entry.lastAccessMillis;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+        private volatile long lastAccessMillis;
+
+        private Entry(V value, long expiresAtMillis, long now) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+            this.lastAccessMillis = now;
+        }
+
+        // Skip the write when the stamp is current, so hot entries are not written on every hit
+        private void touch(long now) {
+            if (lastAccessMillis != now) {
+                lastAccessMillis = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.petcare.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Short-TTL cache that coalesces concurrent loads: while a value is being
+// computed, every other caller for the same key waits on that computation
+// instead of starting its own. Failures are not cached.
+public class CoalescingCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    public CoalescingCache(long ttlMillis) {
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("ttlMillis must not be negative");
+        }
+        this.ttlMillis = ttlMillis;
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        while (true) {
+            Entry<V> current = entries.get(key);
+            if (current != null && !current.isStale(System.currentTimeMillis())) {
+                return current.await();
+            }
+
+            Entry<V> loading = new Entry<>();
+            boolean owner = current == null
+                    ? entries.putIfAbsent(key, loading) == null
+                    : entries.replace(key, current, loading);
+            if (!owner) {
+                // Another caller started a load first; wait for that one
+                continue;
+            }
+
+            try {
+                V value = loader.get();
+                loading.complete(value, System.currentTimeMillis() + ttlMillis);
+                return value;
+            } catch (RuntimeException | Error ex) {
+                entries.remove(key, loading);
+                loading.fail(ex);
+                throw ex;
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        // Never stale while loading, so waiters do not start a second load
+        private volatile long expiresAtMillis = Long.MAX_VALUE;
+
+        private boolean isStale(long now) {
+            return now >= expiresAtMillis;
+        }
+
+        private void complete(V value, long expiresAtMillis) {
+            this.expiresAtMillis = expiresAtMillis;
+            future.complete(value);
+        }
+
+        private void fail(Throwable ex) {
+            future.completeExceptionally(ex);
+        }
+
+        private V await() {
+            try {
+                return future.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw ex;
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.petcare.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Minimal streaming RFC 4180 reader: comma separated, double-quoted fields with ""
+// escapes, and quoted fields may span lines. Reads one record at a time, so memory
+// use does not depend on the size of the input. Fields and records are capped in
+// length, so a stray quote cannot swallow the rest of the file; a record that breaks
+// a cap or the quoting rules throws MalformedRecordException and reading resumes at
+// the next line.
+public class CsvReader {
+
+    private final Reader reader;
+    private final int maxFieldLength;
+    private final int maxRecordLength;
+    private long line = 1;
+    private long recordLine;
+    private int pushback = -2;
+
+    public CsvReader(Reader reader, int maxFieldLength, int maxRecordLength) {
+        this.reader = reader;
+        this.maxFieldLength = maxFieldLength;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    // Next record, or null at end of input
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        // Skip blank lines between records
+        while (c == '\r' || c == '\n') {
+            c = read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int recordLength = 0;
+        boolean quoted = false;
+        boolean closed = false;
+        boolean fieldStart = true;
+        while (true) {
+            if (field.length() > maxFieldLength) {
+                throw malformed(c, "Field longer than " + maxFieldLength + " characters");
+            }
+            if (++recordLength > maxRecordLength) {
+                throw malformed(c, "Record longer than " + maxRecordLength + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw malformed(c, "Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        closed = true;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                closed = false;
+                fieldStart = true;
+                c = read();
+                continue;
+            } else if (closed && c != '\r' && c != '\n' && c != -1) {
+                throw malformed(c, "Unexpected character after closing quote");
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            fieldStart = false;
+            c = read();
+        }
+    }
+
+    // Line on which the last returned (or rejected) record started
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    // Skips to the start of the next line so the following readRecord() starts clean
+    private MalformedRecordException malformed(int c, String reason) throws IOException {
+        long endLine = c == '\n' ? line - 1 : line;
+        while (c != '\n' && c != -1) {
+            c = read();
+        }
+        String where = endLine == recordLine ? "line " + recordLine : "lines " + recordLine + "-" + endLine;
+        return new MalformedRecordException(recordLine, reason + " (record on " + where + ")");
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pushback != -2) {
+            c = pushback;
+            pushback = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n') {
+            line++;
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushback = c;
+        if (c == '\n') {
+            line--;
+        }
+    }
+
+    // A record that could not be parsed; the reader has already moved past it
+    public static class MalformedRecordException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long recordLine;
+
+        public MalformedRecordException(long recordLine, String message) {
+            super(message);
+            this.recordLine = recordLine;
+        }
+
+        public long getRecordLine() {
+            return recordLine;
+        }
+    }
+}
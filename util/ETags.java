@@ -0,0 +1,91 @@
+package com.petcare.util;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Validators for conditional GETs derived from updatedAt. A single resource gets a
+// strong ETag of its id and updatedAt; a list gets a weak ETag of its variant
+// (e.g. full or summary view), size and newest updatedAt, which changes on any
+// insert, update or delete of its members. Both include the negotiated encoding
+// (JSON, Smile or CBOR), since the bytes of each differ.
+public final class ETags {
+
+    // In the order the message converters are registered, so */* resolves to JSON
+    private static final List<MediaType> ENCODINGS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.valueOf("application/x-jackson-smile"),
+            MediaType.APPLICATION_CBOR);
+
+    private ETags() {}
+
+    public static String strong(String id, LocalDateTime updatedAt, WebRequest request) {
+        return "\"" + id + "-" + Long.toHexString(lastModified(updatedAt)) + "-" + encoding(request) + "\"";
+    }
+
+    // List variant qualified by the negotiated encoding, e.g. summary-cbor
+    public static String variant(String view, WebRequest request) {
+        return view + "-" + encoding(request);
+    }
+
+    // Subtype of the encoding the Accept header negotiates: json, x-jackson-smile or cbor
+    public static String encoding(WebRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON.getSubtype();
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType type : accepted) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+                for (MediaType encoding : ENCODINGS) {
+                    if (type.isCompatibleWith(encoding)) {
+                        return encoding.getSubtype();
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException ex) {
+            // Served as JSON like any other unparseable Accept header
+        }
+        return MediaType.APPLICATION_JSON.getSubtype();
+    }
+
+    public static String weak(String variant, long count, long latestMillis) {
+        return "W/\"" + variant + "-" + count + "-" + Long.toHexString(latestMillis) + "\"";
+    }
+
+    public static <T> String weak(String variant, Collection<T> items, Function<T, LocalDateTime> updatedAt) {
+        long latest = items.stream()
+                .map(updatedAt)
+                .mapToLong(ETags::lastModified)
+                .max()
+                .orElse(0L);
+        return weak(variant, items.size(), latest);
+    }
+
+    // Epoch millis in the zone Mongo used to store the LocalDateTime
+    public static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt == null ? -1L : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // 200 response carrying the resource's validators
+    public static ResponseEntity.BodyBuilder ok(String id, LocalDateTime updatedAt, WebRequest request) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (updatedAt != null) {
+            builder.eTag(strong(id, updatedAt, request)).lastModified(lastModified(updatedAt));
+        }
+        return builder;
+    }
+}
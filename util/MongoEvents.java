@@ -0,0 +1,29 @@
+package com.petcare.util;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractDeleteEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Helpers for the Mongo lifecycle events the in-memory indexes and caches listen to
+public final class MongoEvents {
+
+    private MongoEvents() {}
+
+    // Ids removed by a delete by id or by an _id $in query (deleteById, delete,
+    // deleteAllById). Empty when the delete used an arbitrary query: the affected ids
+    // are then unknown and the listener has to rebuild or clear what it holds. Works for
+    // the before and the after event, which carry the same delete query.
+    public static Optional<List<String>> deletedIds(AbstractDeleteEvent<?> event) {
+        Object id = event.getSource().get("_id");
+        if (id instanceof Document selector && selector.get("$in") instanceof Collection<?> ids) {
+            return Optional.of(ids.stream().map(Object::toString).toList());
+        }
+        if (id != null && !(id instanceof Document)) {
+            return Optional.of(List.of(id.toString()));
+        }
+        return Optional.empty();
+    }
+}
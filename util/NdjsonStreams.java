@@ -0,0 +1,37 @@
+package com.petcare.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Writes a Mongo cursor as newline-delimited JSON. The stream is opened inside the
+// response body callback and closed when writing ends, so only the cursor's
+// current batch is ever held in memory.
+public final class NdjsonStreams {
+
+    public static final String MEDIA_TYPE = "application/x-ndjson";
+
+    private NdjsonStreams() {}
+
+    public static <T> StreamingResponseBody body(ObjectMapper objectMapper, Supplier<Stream<T>> source) {
+        // Flushing after every record would turn each line into its own network write
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        return outputStream -> {
+            try (Stream<T> records = source.get();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                Iterator<T> iterator = records.iterator();
+                while (iterator.hasNext()) {
+                    writer.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+    }
+}